@@ -0,0 +1,91 @@
+package com.hackaton1.resu.benchmark;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic orders for the benchmarks, built without a database.
+ */
+final class OrderFixtures {
+
+    static final String CUSTOMER_EMAIL = "benchmark@example.com";
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * Create products with consecutive IDs starting at 1.
+     *
+     * @param count the number of products
+     * @return the products, keyed by ID in ID order
+     */
+    static Map<Long, Product> products(int count) {
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            products.put(id, Product.builder()
+                    .id(id)
+                    .name("Benchmark Product " + id)
+                    .priceCents(999 + 100 * id)
+                    .stock(Integer.MAX_VALUE)
+                    .reserved(0)
+                    .version(0L)
+                    .build());
+        }
+        return products;
+    }
+
+    /**
+     * Create an order as the order service would hand it to the listeners, with IDs and creation date set
+     * but the total and item count not yet stored.
+     *
+     * @param id the order ID
+     * @param products the products, one line item each
+     * @return the order
+     */
+    static Order order(long id, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerEmail(CUSTOMER_EMAIL);
+        order.setCreatedAt(LocalDateTime.of(2026, 10, 1, 12, 0));
+        long itemId = id * 1000;
+        int quantity = 1;
+        for (Product product : products.values()) {
+            order.addItem(OrderItem.builder()
+                    .id(itemId++)
+                    .product(product)
+                    .productName(product.getName())
+                    .quantity(quantity)
+                    .priceCents(product.getPriceCents())
+                    .build());
+            quantity = quantity % 5 + 1;
+        }
+        return order;
+    }
+
+    /**
+     * Create an order request with one line item per product.
+     *
+     * @param products the products
+     * @return the request
+     */
+    static CreateOrderRequest request(Map<Long, Product> products) {
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        int quantity = 1;
+        for (Long productId : products.keySet()) {
+            items.add(new CreateOrderRequest.OrderItemRequest(productId, quantity));
+            quantity = quantity % 5 + 1;
+        }
+        return CreateOrderRequest.builder()
+                .customerEmail(CUSTOMER_EMAIL)
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.hackaton1.resu.benchmark;
+
+import com.hackaton1.resu.audit.AuditSink;
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.config.AuditProperties;
+import com.hackaton1.resu.config.InventoryBatchProperties;
+import com.hackaton1.resu.config.ProductCacheProperties;
+import com.hackaton1.resu.config.RetryProperties;
+import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.listener.AuditLogListener;
+import com.hackaton1.resu.listener.CustomerSummaryListener;
+import com.hackaton1.resu.listener.EmailNotificationListener;
+import com.hackaton1.resu.listener.InventoryUpdateListener;
+import com.hackaton1.resu.mail.MailQueue;
+import com.hackaton1.resu.mail.OrderEmailRenderer;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboundEmailRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.retry.ConcurrencyRetryPolicy;
+import com.hackaton1.resu.service.InventoryBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the handler of each order listener for orders of different sizes.
+ * The listeners are called directly, without the async executors, and the repositories are in-memory stubs,
+ * so the results cover the listener code: rendering, batching, record building and bookkeeping.
+ * The audit sink is real and writes to a temporary directory on its own thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderListenerBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lineItems;
+
+    private OrderCreatedEvent event;
+    private Path auditDirectory;
+    private AuditSink auditSink;
+    private AuditLogListener auditLogListener;
+    private EmailNotificationListener emailNotificationListener;
+    private CustomerSummaryListener customerSummaryListener;
+    private InventoryUpdateListener inventoryUpdateListener;
+
+    @Setup
+    public void setUp() throws IOException {
+        event = new OrderCreatedEvent(this, OrderFixtures.order(1L, OrderFixtures.products(lineItems)));
+
+        auditDirectory = Files.createTempDirectory("audit-benchmark");
+        AuditProperties auditProperties = new AuditProperties();
+        auditProperties.setDirectory(auditDirectory);
+        auditSink = new AuditSink(auditProperties);
+        auditSink.start();
+        auditLogListener = new AuditLogListener(auditSink);
+
+        OutboundEmailRepository outboundEmailRepository = Stubs.repository(OutboundEmailRepository.class, Map.of(
+                "existsByOrderIdAndTemplate", args -> false,
+                "save", args -> args[0]));
+        emailNotificationListener = new EmailNotificationListener(new OrderEmailRenderer(), new MailQueue(outboundEmailRepository));
+
+        OrderRepository orderRepository = Stubs.repository(OrderRepository.class, Map.of(
+                "markSummaryApplied", args -> 1,
+                "lockInventoryPendingIds", args -> new ArrayList<>((Collection<?>) args[0]),
+                "markInventoryApplied", args -> ((Collection<?>) args[0]).size()));
+        CustomerOrderSummaryRepository customerOrderSummaryRepository = Stubs.repository(CustomerOrderSummaryRepository.class,
+                Map.of("addOrder", args -> null));
+        customerSummaryListener = new CustomerSummaryListener(customerOrderSummaryRepository, orderRepository,
+                Stubs.transactionTemplate());
+
+        ProductRepository productRepository = Stubs.repository(ProductRepository.class, Map.of(
+                "deductReservedStock", args -> List.of()));
+        // Flush every order at once on the calling thread, so the handler's future completes before it returns
+        InventoryBatchProperties batchProperties = new InventoryBatchProperties();
+        batchProperties.setMaxSize(1);
+        InventoryBatcher inventoryBatcher = new InventoryBatcher(productRepository, orderRepository,
+                new ConcurrencyRetryPolicy(new RetryProperties()), Stubs.transactionTemplate(), batchProperties,
+                Runnable::run, new ProductCache(productRepository, new ProductCacheProperties()),
+                new OrderPipelineMetrics(new SimpleMeterRegistry()));
+        inventoryUpdateListener = new InventoryUpdateListener(inventoryBatcher);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        auditSink.close();
+        FileSystemUtils.deleteRecursively(auditDirectory);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> auditLog() {
+        return auditLogListener.handleOrderCreatedEvent(event);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> emailNotification() {
+        return emailNotificationListener.handleOrderCreatedEvent(event);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> customerSummary() {
+        return customerSummaryListener.handleOrderCreatedEvent(event);
+    }
+
+    @Benchmark
+    public Void inventoryUpdate() {
+        return inventoryUpdateListener.handleOrderCreatedEvent(event).join();
+    }
+}
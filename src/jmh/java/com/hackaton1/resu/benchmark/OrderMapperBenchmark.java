@@ -0,0 +1,62 @@
+package com.hackaton1.resu.benchmark;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OrderMapper} conversions for orders of different sizes.
+ * toEntity is measured with the products already loaded, as the order service and the batch service call it;
+ * the product lookup itself is a database query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lineItems;
+
+    private OrderMapper orderMapper;
+    private Map<Long, Product> products;
+    private Order order;
+    private CreateOrderRequest request;
+
+    @Setup
+    public void setUp() {
+        // The product service is only used to load products, which the benchmarked methods receive instead
+        orderMapper = new OrderMapper(null);
+        products = OrderFixtures.products(lineItems);
+        order = OrderFixtures.order(1L, products);
+        request = OrderFixtures.request(products);
+    }
+
+    @Benchmark
+    public OrderDTO toDTO() {
+        return orderMapper.toDTO(order);
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return orderMapper.toEntity(request, products);
+    }
+}
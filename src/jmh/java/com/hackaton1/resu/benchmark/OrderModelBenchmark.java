@@ -0,0 +1,57 @@
+package com.hackaton1.resu.benchmark;
+
+import com.hackaton1.resu.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the totals of {@link Order} for orders of different sizes, both derived from the items
+ * before the order is persisted and stored afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderModelBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lineItems;
+
+    private Order newOrder;
+    private Order persistedOrder;
+
+    @Setup
+    public void setUp() {
+        newOrder = OrderFixtures.order(1L, OrderFixtures.products(lineItems));
+        persistedOrder = OrderFixtures.order(2L, OrderFixtures.products(lineItems));
+        persistedOrder.prePersist();
+    }
+
+    @Benchmark
+    public long totalCentsDerived() {
+        return newOrder.getTotalCents();
+    }
+
+    @Benchmark
+    public long totalCentsStored() {
+        return persistedOrder.getTotalCents();
+    }
+
+    @Benchmark
+    public Integer itemCountDerived() {
+        return newOrder.getItemCount();
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackaton1.resu.benchmark;
+
+import com.hackaton1.resu.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Product#decreaseStock}, for a product that has enough stock and for one that has not.
+ * The stock is reset before every decrease, so each invocation does the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductModelBenchmark {
+
+    private static final int STOCK = 1000;
+
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        product = OrderFixtures.products(1).get(1L);
+    }
+
+    @Benchmark
+    public Integer decreaseStock() {
+        product.setStock(STOCK);
+        product.decreaseStock(3);
+        return product.getStock();
+    }
+
+    @Benchmark
+    public Object decreaseStockInsufficient() {
+        product.setStock(STOCK);
+        try {
+            product.decreaseStock(STOCK + 1);
+            return product.getStock();
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
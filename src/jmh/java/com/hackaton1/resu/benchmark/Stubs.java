@@ -0,0 +1,69 @@
+package com.hackaton1.resu.benchmark;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories and the transaction manager, so the listener benchmarks
+ * measure the listener code rather than the database.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Create a stub of a repository interface that answers the given methods and rejects all others.
+     *
+     * @param type the repository interface
+     * @param answers the answers keyed by method name, computed from the call arguments
+     * @param <T> the repository type
+     * @return the stub
+     */
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return answer.apply(args);
+        });
+        return type.cast(stub);
+    }
+
+    /**
+     * Create a transaction template that runs its callbacks without a transaction.
+     *
+     * @return the transaction template
+     */
+    static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+}
@@ -0,0 +1,352 @@
+package com.hackaton1.resu.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator of mixed REST traffic.
+ * Requests are scheduled at fixed intervals and sent without waiting for earlier responses. Latency is measured
+ * from the scheduled send time, so time a request waited because the server or the client fell behind counts
+ * towards its latency instead of silently lowering the request rate (coordinated omission).
+ * All random choices come from one seeded generator on the scheduling thread, so a run is reproducible.
+ */
+@Slf4j
+class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int PAGE_SIZE = 50;
+    private static final int CUSTOMER_ORDERS_PAGE_SIZE = 20;
+    private static final int MAX_QUANTITY = 3;
+
+    /**
+     * The request types of the traffic mix.
+     */
+    enum Operation {
+        PRODUCT_GET("product.get"),
+        PRODUCT_PAGE("product.page"),
+        ORDER_CREATE("order.create"),
+        CUSTOMER_ORDERS("customer.orders"),
+        CUSTOMER_SUMMARY("customer.summary");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        String getLabel() {
+            return label;
+        }
+    }
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final List<Long> productIds;
+    private final ObjectMapper objectMapper;
+    private final Random random;
+    private final double[] productCdf;
+    private final Operation[] operations = Operation.values();
+    private final int[] cumulativeWeights;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Semaphore inFlight;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    // Only touched by the scheduling thread
+    private long measuredNanos;
+    private long maxLagNanos;
+    private long sent;
+
+    LoadGenerator(LoadTestOptions options, URI baseUri, List<Long> productIds, ObjectMapper objectMapper) {
+        if (options.getRate() <= 0) {
+            throw new IllegalArgumentException("The request rate must be positive: " + options.getRate());
+        }
+        this.options = options;
+        this.baseUri = baseUri;
+        this.productIds = List.copyOf(productIds);
+        this.objectMapper = objectMapper;
+        this.random = new Random(options.getSeed());
+        this.productCdf = zipfCdf(productIds.size(), options.getProductSkew());
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+        this.cumulativeWeights = cumulativeWeights(options.getMix());
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Send the warm-up load, then the measured load, and wait for the outstanding responses.
+     *
+     * @param onMeasurementStart called on the scheduling thread when the warm-up is over
+     * @throws InterruptedException if interrupted while sending or waiting for responses
+     */
+    void run(Runnable onMeasurementStart) throws InterruptedException {
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / options.getRate());
+        long start = System.nanoTime();
+        long measureFrom = start + options.getWarmup().toNanos();
+        long end = measureFrom + options.getDuration().toNanos();
+        boolean measuring = false;
+        log.info("Warming up for {} at {} requests/s", options.getWarmup(), options.getRate());
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            if (!measuring && intended >= measureFrom) {
+                measuring = true;
+                onMeasurementStart.run();
+                log.info("Measuring for {}", options.getDuration());
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            inFlight.acquire();
+
+            Operation operation = nextOperation();
+            HttpRequest request = request(operation);
+            long sentAt = System.nanoTime();
+            if (measuring) {
+                maxLagNanos = Math.max(maxLagNanos, sentAt - intended);
+                sent++;
+            }
+            OperationStats target = measuring ? stats.get(operation) : null;
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long completedAt = System.nanoTime();
+                inFlight.release();
+                if (target != null) {
+                    target.record(completedAt - intended, completedAt - sentAt, response, error);
+                }
+            });
+        }
+        measuredNanos = end - measureFrom;
+
+        long drainMillis = options.getRequestTimeout().toMillis() + 5_000;
+        if (!inFlight.tryAcquire(options.getMaxInFlight(), drainMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests still outstanding after {} ms",
+                    options.getMaxInFlight() - inFlight.availablePermits(), drainMillis);
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("No operation for weight " + pick);
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case PRODUCT_GET -> get("/products/" + nextProduct());
+            case PRODUCT_PAGE -> get("/products?afterId=" + (nextProduct() - 1) + "&size=" + PAGE_SIZE);
+            case ORDER_CREATE -> HttpRequest.newBuilder(baseUri.resolve("/orders"))
+                    .timeout(options.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json(nextOrder())))
+                    .build();
+            case CUSTOMER_ORDERS -> get("/customers/" + nextCustomer() + "/orders?size=" + CUSTOMER_ORDERS_PAGE_SIZE);
+            case CUSTOMER_SUMMARY -> get("/customers/" + nextCustomer() + "/summary");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(options.getRequestTimeout())
+                .GET()
+                .build();
+    }
+
+    private CreateOrderRequest nextOrder() {
+        int lineItems = Math.min(nextLineItemCount(), productIds.size());
+        // Popular products appear in many orders, as they would in a real shop; retries keep the lines distinct
+        Set<Long> products = new LinkedHashSet<>();
+        for (int attempts = 0; products.size() < lineItems && attempts < lineItems * 20; attempts++) {
+            products.add(nextProduct());
+        }
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Long productId : products) {
+            items.add(new CreateOrderRequest.OrderItemRequest(productId, 1 + random.nextInt(MAX_QUANTITY)));
+        }
+        return CreateOrderRequest.builder()
+                .customerEmail(nextCustomer())
+                .items(items)
+                .build();
+    }
+
+    private int nextLineItemCount() {
+        // Geometric distribution on 1, 2, 3, ... with the configured mean
+        double mean = Math.max(1, options.getItemsMean());
+        if (mean == 1) {
+            return 1;
+        }
+        double p = 1 / mean;
+        int count = 1 + (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+        return Math.max(1, Math.min(count, options.getItemsMax()));
+    }
+
+    private long nextProduct() {
+        int index = Arrays.binarySearch(productCdf, random.nextDouble());
+        index = index >= 0 ? index : -index - 1;
+        return productIds.get(Math.min(index, productIds.size() - 1));
+    }
+
+    private String nextCustomer() {
+        return "customer-" + random.nextInt(options.getCustomers()) + "@loadtest.local";
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double[] zipfCdf(int size, double exponent) {
+        if (size == 0) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int[] cumulativeWeights(LoadTestOptions.Mix mix) {
+        int[] weights = {mix.getProductGet(), mix.getProductPage(), mix.getOrderCreate(),
+                mix.getCustomerOrders(), mix.getCustomerSummary()};
+        int[] cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Traffic mix weights must not be negative: " + mix);
+            }
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one traffic mix weight must be positive: " + mix);
+        }
+        return cumulative;
+    }
+
+    Map<Operation, OperationStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Get the length of the measured period.
+     *
+     * @return the measured time in nanoseconds
+     */
+    long getMeasuredNanos() {
+        return measuredNanos;
+    }
+
+    /**
+     * Get the longest time a measured request was sent after its scheduled time.
+     * A large lag means the client could not keep up or hit the in-flight limit.
+     *
+     * @return the maximum lag in nanoseconds
+     */
+    long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * Get the number of requests sent in the measured period.
+     *
+     * @return the sent request count
+     */
+    long getSentCount() {
+        return sent;
+    }
+
+    /**
+     * Latencies and failures of one request type.
+     * Only successful responses (2xx and 304) are recorded in the histograms; failures are counted by cause.
+     */
+    static final class OperationStats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        void record(long latencyNanos, long serviceNanos, HttpResponse<?> response, Throwable error) {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                failures.computeIfAbsent(cause.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                return;
+            }
+            int status = response.statusCode();
+            if (status / 100 != 2 && status != 304) {
+                failures.computeIfAbsent("HTTP " + status, key -> new LongAdder()).increment();
+                return;
+            }
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(serviceNanos), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        /**
+         * @return the latencies from the scheduled send time, in microseconds
+         */
+        Histogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return the latencies from the actual send time, in microseconds
+         */
+        Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        long getFailureCount() {
+            return failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        /**
+         * @return the failure counts by cause, such as "HTTP 409" or "HttpTimeoutException"
+         */
+        Map<String, Long> getFailures() {
+            Map<String, Long> counts = new TreeMap<>();
+            failures.forEach((cause, count) -> counts.put(cause, count.sum()));
+            return counts;
+        }
+    }
+}
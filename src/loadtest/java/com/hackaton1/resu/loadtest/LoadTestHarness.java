@@ -0,0 +1,100 @@
+package com.hackaton1.resu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton1.resu.ResuApplication;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load test of the REST API on a single machine.
+ * Starts the application on an empty in-memory H2 database with the configuration of src/main/resources,
+ * overridden by loadtest.properties and then by the command line, creates the products and drives mixed traffic
+ * over HTTP: product reads, order creation with a realistic number of line items and customer lookups.
+ * Any application property can be passed on the command line, so configurations such as pool sizes or cache
+ * settings can be compared run by run:
+ * <pre>
+ * mvn -P loadtest verify -DskipTests \
+ *     -Dloadtest.args="--loadtest.rate=500 --resu.product-cache.max-size=0"
+ * </pre>
+ * The client runs in the same JVM as the server, so both share the CPUs; keep the rate below what saturates the
+ * machine when comparing server settings.
+ */
+@Slf4j
+public final class LoadTestHarness {
+
+    private static final int PRODUCT_STOCK = 1_000_000_000;
+    private static final int INSERT_CHUNK = 500;
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would restart the application in its own class loader and change its defaults
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(ResuApplication.class);
+        application.setDefaultProperties(Map.of("spring.config.location", configLocation()));
+
+        Path report;
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            LoadTestOptions options = Binder.get(context.getEnvironment()).bindOrCreate("loadtest", LoadTestOptions.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Long> productIds = createProducts(context.getBean(ProductRepository.class), options);
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            LoadGenerator generator = new LoadGenerator(options, URI.create("http://localhost:" + port),
+                    productIds, context.getBean(ObjectMapper.class));
+            AtomicReference<ServerMetrics> atMeasurementStart = new AtomicReference<>(ServerMetrics.snapshot(registry));
+            generator.run(() -> atMeasurementStart.set(ServerMetrics.snapshot(registry)));
+            ServerMetrics serverMetrics = ServerMetrics.snapshot(registry).since(atMeasurementStart.get());
+
+            LoadTestReport loadTestReport = new LoadTestReport(options, args, generator, serverMetrics);
+            report = loadTestReport.write();
+            loadTestReport.print(System.out);
+        }
+        log.info("Report written to {}", report.toAbsolutePath());
+        // The HTTP client keeps idle connections and their threads alive
+        System.exit(0);
+    }
+
+    /**
+     * The configuration of the application itself is found by location, as the test resources, which come first
+     * on the class path, contain an application.properties of their own.
+     */
+    private static String configLocation() {
+        String classes = ResuApplication.class.getProtectionDomain().getCodeSource().getLocation().toString();
+        return classes + "application.properties,classpath:/loadtest.properties";
+    }
+
+    private static List<Long> createProducts(ProductRepository productRepository, LoadTestOptions options) {
+        Random random = new Random(options.getSeed());
+        List<Long> productIds = new ArrayList<>(options.getProducts());
+        List<Product> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < options.getProducts(); i++) {
+            chunk.add(Product.builder()
+                    .name("Load Product " + i)
+                    .priceCents(199 + random.nextInt(50_000))
+                    .stock(PRODUCT_STOCK)
+                    .build());
+            if (chunk.size() == INSERT_CHUNK || i == options.getProducts() - 1) {
+                productRepository.saveAll(chunk).forEach(product -> productIds.add(product.getId()));
+                chunk.clear();
+            }
+        }
+        log.info("Created {} products", productIds.size());
+        return productIds;
+    }
+}
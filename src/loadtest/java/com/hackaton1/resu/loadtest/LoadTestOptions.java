@@ -0,0 +1,107 @@
+package com.hackaton1.resu.loadtest;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a load test run, bound from the loadtest.* properties.
+ */
+@Data
+public class LoadTestOptions {
+
+    /**
+     * Requests per second, sent at fixed intervals.
+     */
+    private double rate = 100;
+
+    /**
+     * Time the load runs before measuring starts, so the JIT, pools and caches are warm.
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Time the load is measured.
+     */
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Maximum requests awaiting a response; further requests wait and their wait counts towards their latency.
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * Time after which a request counts as failed.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Seed of the random choices, so runs with the same settings send the same requests.
+     */
+    private long seed = 42;
+
+    /**
+     * Directory the report and the latency histograms are written to.
+     */
+    private Path reportDirectory = Path.of("target", "loadtest");
+
+    /**
+     * Number of products created before the run.
+     */
+    private int products = 500;
+
+    /**
+     * Zipf exponent of product popularity; 0 picks products uniformly.
+     */
+    private double productSkew = 1.0;
+
+    /**
+     * Number of distinct customers placing orders and being looked up.
+     */
+    private int customers = 2000;
+
+    /**
+     * Mean number of line items per order.
+     */
+    private double itemsMean = 3;
+
+    /**
+     * Maximum number of line items per order.
+     */
+    private int itemsMax = 20;
+
+    private Mix mix = new Mix();
+
+    /**
+     * Relative weights of the request types.
+     */
+    @Data
+    public static class Mix {
+
+        /**
+         * GET /products/{id}
+         */
+        private int productGet = 50;
+
+        /**
+         * GET /products?afterId=&size=
+         */
+        private int productPage = 10;
+
+        /**
+         * POST /orders
+         */
+        private int orderCreate = 25;
+
+        /**
+         * GET /customers/{email}/orders
+         */
+        private int customerOrders = 10;
+
+        /**
+         * GET /customers/{email}/summary
+         */
+        private int customerSummary = 5;
+    }
+}
@@ -0,0 +1,124 @@
+package com.hackaton1.resu.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a load test run: the settings, the client-side latencies per request type and the server metrics
+ * that changed while measuring. The full latency distribution of every request type is written next to the
+ * report in the HdrHistogram percentile format, which the HdrHistogram plotter reads, so runs can be overlaid.
+ */
+class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String ROW = "%-18s %8s %8s %9s %9s %9s %9s %9s %9s %11s%n";
+
+    private final LoadTestOptions options;
+    private final String[] args;
+    private final LoadGenerator generator;
+    private final ServerMetrics serverMetrics;
+    private final Instant finishedAt = Instant.now();
+
+    LoadTestReport(LoadTestOptions options, String[] args, LoadGenerator generator, ServerMetrics serverMetrics) {
+        this.options = options;
+        this.args = args;
+        this.generator = generator;
+        this.serverMetrics = serverMetrics;
+    }
+
+    /**
+     * Write the report and the latency distributions to the report directory.
+     *
+     * @return the report file
+     * @throws IOException if a file cannot be written
+     */
+    Path write() throws IOException {
+        Path directory = options.getReportDirectory();
+        Files.createDirectories(directory);
+        for (Map.Entry<LoadGenerator.Operation, LoadGenerator.OperationStats> entry : generator.getStats().entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().getLabel() + ".hgrm")))) {
+                entry.getValue().getLatency().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        Path report = directory.resolve("report.txt");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+            print(out);
+        }
+        return report;
+    }
+
+    void print(PrintStream out) {
+        out.printf("Load test report, %s%n", finishedAt);
+        out.printf("Arguments: %s%n", args.length == 0 ? "(none)" : String.join(" ", args));
+        out.printf("Schedule: %.1f requests/s for %s after %s warm-up, at most %d in flight, seed %d%n",
+                options.getRate(), options.getDuration(), options.getWarmup(), options.getMaxInFlight(), options.getSeed());
+        out.printf("Data: %d products (Zipf exponent %.2f), %d customers, %.1f line items per order on average (max %d)%n",
+                options.getProducts(), options.getProductSkew(), options.getCustomers(),
+                options.getItemsMean(), options.getItemsMax());
+        out.printf("Mix: %s%n", options.getMix());
+        out.println();
+
+        Histogram all = new Histogram(3);
+        Histogram allServiceTimes = new Histogram(3);
+        long failed = 0;
+        for (LoadGenerator.OperationStats stats : generator.getStats().values()) {
+            all.add(stats.getLatency());
+            allServiceTimes.add(stats.getServiceTime());
+            failed += stats.getFailureCount();
+        }
+        double seconds = generator.getMeasuredNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf("Sent %d requests: %d succeeded, %d failed, %.1f successful requests/s; max send lag %.3f ms%n",
+                generator.getSentCount(), all.getTotalCount(), failed, all.getTotalCount() / seconds,
+                generator.getMaxLagNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        out.println();
+
+        out.println("Latency in ms from the scheduled send time; svc p99 is measured from the actual send time");
+        out.printf(ROW, "request", "count", "failed", "p50", "p90", "p99", "p99.9", "max", "mean", "svc p99");
+        generator.getStats().forEach((operation, stats) ->
+                row(out, operation.getLabel(), stats.getLatency(), stats.getServiceTime(), stats.getFailureCount()));
+        row(out, "all", all, allServiceTimes, failed);
+
+        if (failed > 0) {
+            out.println();
+            out.println("Failures");
+            generator.getStats().forEach((operation, stats) -> stats.getFailures().forEach((cause, count) ->
+                    out.printf("  %-18s %-30s %d%n", operation.getLabel(), cause, count)));
+        }
+
+        out.println();
+        out.println("Server metrics while measuring");
+        if (serverMetrics.getCounts().isEmpty()) {
+            out.println("  (none changed)");
+        }
+        serverMetrics.getCounts().forEach((name, count) -> {
+            Double mean = serverMetrics.getMeanMillis(name);
+            if (mean != null) {
+                out.printf("  %-70s %12.0f  mean %.3f ms%n", name, count, mean);
+            } else {
+                out.printf("  %-70s %12.0f%n", name, count);
+            }
+        });
+    }
+
+    private static void row(PrintStream out, String label, Histogram latency, Histogram serviceTime, long failed) {
+        out.printf(ROW, label, latency.getTotalCount(), failed,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                String.format("%.3f", latency.getMean() / MICROS_PER_MILLI),
+                millis(serviceTime.getValueAtPercentile(99)));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.3f", micros / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hackaton1.resu.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of the resu.* counters and timers of the application, so the server side of a run can be reported
+ * next to the client-side latencies: cache hits, retries, shed events, listener and flush times.
+ */
+final class ServerMetrics {
+
+    private static final String PREFIX = "resu.";
+
+    private final Map<String, Double> counts;
+    private final Map<String, Double> totalMillis;
+
+    private ServerMetrics(Map<String, Double> counts, Map<String, Double> totalMillis) {
+        this.counts = counts;
+        this.totalMillis = totalMillis;
+    }
+
+    static ServerMetrics snapshot(MeterRegistry registry) {
+        Map<String, Double> counts = new TreeMap<>();
+        Map<String, Double> totalMillis = new TreeMap<>();
+        for (Meter meter : registry.getMeters()) {
+            if (!meter.getId().getName().startsWith(PREFIX)) {
+                continue;
+            }
+            String name = name(meter);
+            if (meter instanceof Counter counter) {
+                counts.put(name, counter.count());
+            } else if (meter instanceof FunctionCounter counter) {
+                counts.put(name, counter.count());
+            } else if (meter instanceof Timer timer) {
+                counts.put(name, (double) timer.count());
+                totalMillis.put(name, timer.totalTime(TimeUnit.MILLISECONDS));
+            } else if (meter instanceof FunctionTimer timer) {
+                counts.put(name, timer.count());
+                totalMillis.put(name, timer.totalTime(TimeUnit.MILLISECONDS));
+            }
+        }
+        return new ServerMetrics(counts, totalMillis);
+    }
+
+    private static String name(Meter meter) {
+        String tags = meter.getId().getTags().stream()
+                .filter(tag -> !tag.getKey().equals("application"))
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(","));
+        return tags.isEmpty() ? meter.getId().getName() : meter.getId().getName() + "{" + tags + "}";
+    }
+
+    /**
+     * Get what changed since an earlier snapshot, leaving out meters that did not change.
+     *
+     * @param earlier the earlier snapshot
+     * @return the differences
+     */
+    ServerMetrics since(ServerMetrics earlier) {
+        Map<String, Double> countDeltas = new TreeMap<>();
+        Map<String, Double> totalDeltas = new TreeMap<>();
+        counts.forEach((name, count) -> {
+            double delta = count - earlier.counts.getOrDefault(name, 0.0);
+            if (delta != 0) {
+                countDeltas.put(name, delta);
+                if (totalMillis.containsKey(name)) {
+                    totalDeltas.put(name, totalMillis.get(name) - earlier.totalMillis.getOrDefault(name, 0.0));
+                }
+            }
+        });
+        return new ServerMetrics(countDeltas, totalDeltas);
+    }
+
+    /**
+     * @return the counts by meter name and tags
+     */
+    Map<String, Double> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Get the mean time of a timer.
+     *
+     * @param name the meter name and tags
+     * @return the mean in milliseconds, or null if the meter is not a timer
+     */
+    Double getMeanMillis(String name) {
+        Double total = totalMillis.get(name);
+        Double count = counts.get(name);
+        return total == null || count == null || count == 0 ? null : total / count;
+    }
+}
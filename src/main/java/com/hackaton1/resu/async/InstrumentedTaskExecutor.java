@@ -0,0 +1,160 @@
+package com.hackaton1.resu.async;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool task executor that records queue wait time, run time and rejections of its tasks.
+ */
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+    private TaskDecorator contextDecorator = task -> task;
+
+    public InstrumentedTaskExecutor() {
+        super.setTaskDecorator(this::instrument);
+    }
+
+    /**
+     * Set a decorator that carries context of the submitting thread over to the task, such as the current span.
+     * It is applied inside the instrumentation, so the recorded times cover the decorated task.
+     *
+     * @param taskDecorator the decorator
+     */
+    @Override
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.contextDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submitted.increment();
+        try {
+            super.execute(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Run rejected tasks on the submitting thread.
+     *
+     * @return the rejection handler
+     */
+    public RejectedExecutionHandler callerRunsPolicy() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            callerRuns.increment();
+            task.run();
+        };
+    }
+
+    /**
+     * Block the submitting thread until the queue has room for a rejected task.
+     *
+     * @param timeout the maximum time to wait for room
+     * @return the rejection handler
+     */
+    public RejectedExecutionHandler blockPolicy(Duration timeout) {
+        return (task, executor) -> {
+            try {
+                if (executor.isShutdown() || !executor.getQueue().offer(task, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new RejectedExecutionException("No queue space within " + timeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+            }
+        };
+    }
+
+    private Runnable instrument(Runnable task) {
+        long submittedAt = System.nanoTime();
+        Runnable decorated = contextDecorator.decorate(task);
+        return () -> {
+            long startedAt = System.nanoTime();
+            long waited = startedAt - submittedAt;
+            queueWaitNanos.add(waited);
+            maxQueueWaitNanos.accumulate(waited);
+            try {
+                decorated.run();
+            } finally {
+                long ran = System.nanoTime() - startedAt;
+                runNanos.add(ran);
+                maxRunNanos.accumulate(ran);
+                completed.increment();
+            }
+        };
+    }
+
+    /**
+     * Get the number of tasks waiting in the queue.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        return executor.getQueue().size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the number of tasks that were rejected and not run.
+     *
+     * @return the rejection count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the number of tasks that ran on the submitting thread because the pool was saturated.
+     *
+     * @return the caller-runs count
+     */
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    public Duration getTotalQueueWait() {
+        return Duration.ofNanos(queueWaitNanos.sum());
+    }
+
+    public Duration getMaxQueueWait() {
+        return Duration.ofNanos(maxQueueWaitNanos.get());
+    }
+
+    public Duration getTotalRunTime() {
+        return Duration.ofNanos(runNanos.sum());
+    }
+
+    public Duration getMaxRunTime() {
+        return Duration.ofNanos(maxRunNanos.get());
+    }
+}
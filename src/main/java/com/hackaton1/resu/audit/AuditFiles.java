@@ -0,0 +1,66 @@
+package com.hackaton1.resu.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Naming and format of the audit files, shared by the sink and the reader.
+ * Files are named {@code audit-<UTC date>.<index>.jsonl} and hold one JSON record per line.
+ */
+final class AuditFiles {
+
+    static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final Pattern NAME = Pattern.compile("audit-(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)\\.jsonl");
+
+    private AuditFiles() {
+    }
+
+    static Path path(Path directory, LocalDate date, int index) {
+        return directory.resolve("audit-" + date + "." + index + ".jsonl");
+    }
+
+    /**
+     * List the audit files of a directory, oldest first.
+     *
+     * @param directory the directory
+     * @return the audit files, or an empty list if the directory does not exist
+     * @throws IOException if the directory cannot be read
+     */
+    static List<AuditFile> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(AuditFiles::parse)
+                    .filter(file -> file != null)
+                    .sorted(Comparator.comparing(AuditFile::date).thenComparingInt(AuditFile::index))
+                    .toList();
+        }
+    }
+
+    private static AuditFile parse(Path path) {
+        Matcher matcher = NAME.matcher(path.getFileName().toString());
+        return matcher.matches()
+                ? new AuditFile(path, LocalDate.parse(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+
+    record AuditFile(Path path, LocalDate date, int index) {
+    }
+}
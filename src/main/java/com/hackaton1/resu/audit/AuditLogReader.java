@@ -0,0 +1,108 @@
+package com.hackaton1.resu.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queries the audit files written by {@link AuditSink}.
+ * <p>
+ * Also usable from the command line, for example with the application jar:
+ * <pre>
+ * java -cp resu.jar -Dloader.main=com.hackaton1.resu.audit.AuditLogReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     logs/audit --order 42 --from 2026-10-01T00:00:00Z --to 2026-10-02T00:00:00Z
+ * </pre>
+ * Matching records are printed as JSON lines.
+ */
+public class AuditLogReader {
+
+    private final Path directory;
+    private final ObjectReader reader = AuditFiles.MAPPER.readerFor(AuditRecord.class);
+
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Find the records of an order and/or a time range.
+     *
+     * @param orderId the order ID, or null for any order
+     * @param from the earliest order creation time, inclusive, or null for no lower bound
+     * @param to the latest order creation time, exclusive, or null for no upper bound
+     * @return the matching records in the order they were written
+     * @throws IOException if an audit file cannot be read
+     */
+    public List<AuditRecord> find(Long orderId, Instant from, Instant to) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditFiles.AuditFile file : AuditFiles.list(directory)) {
+            // A record is written after its order was created, so older files cannot contain the range
+            if (from != null && file.date().isBefore(from.atOffset(ZoneOffset.UTC).toLocalDate())) {
+                continue;
+            }
+            try (BufferedReader lines = Files.newBufferedReader(file.path())) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    AuditRecord record = parse(line);
+                    if (record != null && matches(record, orderId, from, to)) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    private AuditRecord parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            // The last line of a file may have been cut off by a crash
+            return null;
+        }
+    }
+
+    private static boolean matches(AuditRecord record, Long orderId, Instant from, Instant to) {
+        return (orderId == null || record.orderId() == orderId)
+                && (from == null || !record.createdAt().isBefore(from))
+                && (to == null || record.createdAt().isBefore(to));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditLogReader <directory> [--order <id>] [--from <instant>] [--to <instant>]");
+            System.exit(2);
+        }
+        Long orderId = null;
+        Instant from = null;
+        Instant to = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--order" -> orderId = Long.parseLong(args[i + 1]);
+                case "--from" -> from = Instant.parse(args[i + 1]);
+                case "--to" -> to = Instant.parse(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        for (AuditRecord record : new AuditLogReader(Path.of(args[0])).find(orderId, from, to)) {
+            try {
+                System.out.println(AuditFiles.MAPPER.writeValueAsString(record));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hackaton1.resu.audit;
+
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Audit record of one created order, written as one JSON line.
+ *
+ * @param orderId the order ID
+ * @param createdAt the creation time of the order
+ * @param customerEmail the customer email
+ * @param totalCents the order total in minor units
+ * @param itemCount the number of units across all items
+ * @param items the order lines
+ */
+public record AuditRecord(
+        long orderId,
+        Instant createdAt,
+        String customerEmail,
+        long totalCents,
+        int itemCount,
+        List<Line> items) {
+
+    /**
+     * Create the audit record of an order.
+     *
+     * @param order the order, with its items loaded
+     * @return the audit record
+     */
+    public static AuditRecord of(Order order) {
+        return new AuditRecord(
+                order.getId(),
+                order.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                order.getCustomerEmail(),
+                order.getTotalCents(),
+                order.getItemCount(),
+                order.getItems().stream().map(Line::of).toList());
+    }
+
+    /**
+     * One order line.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity
+     * @param priceCents the unit price in minor units
+     */
+    public record Line(long productId, int quantity, long priceCents) {
+
+        static Line of(OrderItem item) {
+            return new Line(item.getProduct().getId(), item.getQuantity(), item.getPriceCents());
+        }
+    }
+}
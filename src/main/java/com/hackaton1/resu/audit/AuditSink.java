@@ -0,0 +1,247 @@
+package com.hackaton1.resu.audit;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hackaton1.resu.config.AuditProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous, batched writer of audit records.
+ * Callers only put records into a bounded in-memory buffer. A single writer thread drains it in batches,
+ * appends each batch to the current audit file as JSON lines and syncs it to disk once per batch.
+ * Files roll over daily and at a maximum size, and files older than the retention are deleted.
+ * When the buffer is full, records are dropped and counted rather than slowing down order processing.
+ */
+@Component
+@Slf4j
+public class AuditSink {
+
+    private static final long POLL_MILLIS = 100;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final AuditProperties properties;
+    private final ObjectWriter writer = AuditFiles.MAPPER.writerFor(AuditRecord.class);
+    private final BlockingQueue<AuditRecord> buffer;
+    private final long sampleThreshold;
+    private final Thread writerThread = new Thread(this::run, "AuditWriter");
+    private volatile boolean running;
+
+    // Only touched by the writer thread
+    private FileChannel channel;
+    private LocalDate fileDate;
+    private int fileIndex;
+    private long fileSize;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    public AuditSink(AuditProperties properties) {
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.sampleThreshold = (long) (Math.max(0, Math.min(1, properties.getSampleRate())) * (1L << 53));
+        writerThread.setDaemon(true);
+    }
+
+    /**
+     * Start the writer thread, unless auditing is disabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (properties.isEnabled()) {
+            running = true;
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Queue a record for writing.
+     *
+     * @param record the audit record
+     * @return true if the record was queued, false if it was not sampled, the sink is disabled or the buffer is full
+     */
+    public boolean append(AuditRecord record) {
+        if (!running) {
+            return false;
+        }
+        if (!isSampled(record.orderId())) {
+            sampledOut.increment();
+            return false;
+        }
+        if (!buffer.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isSampled(long orderId) {
+        // Fibonacci hashing spreads sequential IDs evenly over [0, 2^53)
+        return (orderId * 0x9E3779B97F4A7C15L) >>> 11 < sampleThreshold;
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditRecord first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write {} audit records", batch.size(), e);
+                dropped.add(batch.size());
+                closeFile();
+            } finally {
+                batch.clear();
+            }
+        }
+        closeFile();
+    }
+
+    private void write(List<AuditRecord> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 256);
+        for (AuditRecord record : batch) {
+            writer.writeValue(out, record);
+            out.write('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+        FileChannel file = currentFile(bytes.remaining());
+        while (bytes.hasRemaining()) {
+            fileSize += file.write(bytes);
+        }
+        file.force(false);
+        syncs.increment();
+        written.add(batch.size());
+    }
+
+    private FileChannel currentFile(int nextWrite) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        boolean full = fileSize > 0 && fileSize + nextWrite > properties.getMaxFileSize().toBytes();
+        if (channel != null && today.equals(fileDate) && !full) {
+            return channel;
+        }
+
+        closeFile();
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        // Always start a new file after a restart, so a line cut off by a crash is never continued
+        fileIndex = today.equals(fileDate) ? fileIndex + 1 : nextIndex(directory, today);
+        fileDate = today;
+        channel = FileChannel.open(AuditFiles.path(directory, fileDate, fileIndex),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        deleteExpired(directory, today);
+        return channel;
+    }
+
+    private static int nextIndex(Path directory, LocalDate date) throws IOException {
+        return AuditFiles.list(directory).stream()
+                .filter(file -> file.date().equals(date))
+                .mapToInt(file -> file.index() + 1)
+                .max()
+                .orElse(0);
+    }
+
+    private void deleteExpired(Path directory, LocalDate today) throws IOException {
+        LocalDate oldestKept = today.minusDays(properties.getRetention().toDays());
+        for (AuditFiles.AuditFile file : AuditFiles.list(directory)) {
+            if (file.date().isBefore(oldestKept)) {
+                Files.deleteIfExists(file.path());
+                log.info("Deleted expired audit file {}", file.path());
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit file", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Stop accepting records, write the buffered ones and close the current file.
+     */
+    @PreDestroy
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("{} audit records were not written before shutdown", buffer.size());
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Get the number of records lost because the buffer was full or writing failed.
+     *
+     * @return the dropped record count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the number of records skipped by sampling.
+     *
+     * @return the sampled-out record count
+     */
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Get the number of batches synced to disk.
+     *
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+}
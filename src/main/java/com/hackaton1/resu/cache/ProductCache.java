@@ -0,0 +1,315 @@
+package com.hackaton1.resu.cache;
+
+import com.hackaton1.resu.config.ProductCacheProperties;
+import com.hackaton1.resu.dto.ProductStockRow;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache of products, read through from the database.
+ * <p>
+ * Products are evicted least recently used beyond the maximum size and reloaded after the TTL.
+ * Stock has a stricter rule: it is checked on its own after the much shorter stock TTL, and
+ * writers that change stock invalidate it once their transaction commits. The check reads only the
+ * stock columns and the version; a product whose version changed is reloaded in full, so a cached
+ * version always matches the cached name and price. Callers always get a copy, so they may modify
+ * the returned products freely.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final long ttlNanos;
+    private final long stockTtlNanos;
+    private final Map<Long, Entry> entries;
+
+    // Bumped by every stock invalidation; a load that overlaps one stores its stock as already stale
+    private final AtomicLong stockInvalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stockRefreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ProductCache(ProductRepository productRepository, ProductCacheProperties properties) {
+        this.productRepository = productRepository;
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.stockTtlNanos = properties.getStockTtl().toNanos();
+        int maxSize = properties.getMaxSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a product, loading it from the database if it is not cached or has expired.
+     *
+     * @param id the product ID
+     * @return a copy of the product if it exists, otherwise empty
+     */
+    public Optional<Product> get(Long id) {
+        return Optional.ofNullable(getAll(List.of(id)).get(id));
+    }
+
+    /**
+     * Get several products, loading the missing ones with one query and refreshing stale stock with another.
+     *
+     * @param ids the product IDs
+     * @return copies of the products that exist, keyed by ID in the order of the given IDs
+     */
+    public Map<Long, Product> getAll(Collection<Long> ids) {
+        long now = System.nanoTime();
+        long invalidations = stockInvalidations.get();
+        Map<Long, Product> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        List<Long> staleStock = new ArrayList<>();
+        synchronized (entries) {
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && now - entry.loadedAt() > ttlNanos) {
+                    entries.remove(id);
+                    expirations.increment();
+                    entry = null;
+                }
+                if (entry == null) {
+                    missing.add(id);
+                    continue;
+                }
+                hits.increment();
+                found.put(id, entry.product());
+                if (entry.stockStale() || now - entry.stockLoadedAt() > stockTtlNanos) {
+                    staleStock.add(id);
+                }
+            }
+        }
+
+        if (!staleStock.isEmpty()) {
+            refreshStock(staleStock, found, invalidations);
+        }
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            for (Product product : productRepository.findAllByIdIn(missing)) {
+                found.put(product.getId(), store(copy(product), System.nanoTime(), invalidations));
+            }
+        }
+
+        Map<Long, Product> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                result.put(id, copy(product));
+            }
+        }
+        return result;
+    }
+
+    private void refreshStock(List<Long> ids, Map<Long, Product> found, long invalidations) {
+        stockRefreshes.add(ids.size());
+        long now = System.nanoTime();
+        Map<Long, ProductStockRow> rows = new LinkedHashMap<>();
+        productRepository.findStockByIdIn(ids).forEach(row -> rows.put(row.id(), row));
+        List<Long> changed = new ArrayList<>();
+        for (Long id : ids) {
+            ProductStockRow row = rows.get(id);
+            if (row == null) {
+                // Deleted since it was cached
+                found.remove(id);
+                evict(id);
+                continue;
+            }
+            if (!Objects.equals(row.version(), found.get(id).getVersion())) {
+                // Every write bumps the version, and name or price may have changed with it
+                changed.add(id);
+                continue;
+            }
+            synchronized (entries) {
+                Entry entry = entries.get(id);
+                if (entry != null && Objects.equals(entry.product().getVersion(), row.version())) {
+                    entries.put(id, new Entry(entry.product(), entry.loadedAt(), now,
+                            stockInvalidations.get() != invalidations));
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            List<Long> deleted = new ArrayList<>(changed);
+            for (Product product : productRepository.findAllByIdIn(changed)) {
+                found.put(product.getId(), store(copy(product), System.nanoTime(), invalidations));
+                deleted.remove(product.getId());
+            }
+            for (Long id : deleted) {
+                found.remove(id);
+                evict(id);
+            }
+        }
+    }
+
+    /**
+     * Get the available stock of a cached product, without loading anything, if its stock is fresh:
+     * loaded within the stock TTL and not invalidated since.
+     *
+     * @param id the product ID
+     * @return the available stock, or empty if the product is not cached or its stock is stale
+     */
+    public OptionalInt getFreshAvailableStock(Long id) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null || entry.stockStale() || now - entry.stockLoadedAt() > stockTtlNanos) {
+                return OptionalInt.empty();
+            }
+            return OptionalInt.of(entry.product().getAvailableStock());
+        }
+    }
+
+    /**
+     * Cache the latest state of a product, e.g. right after it was saved.
+     *
+     * @param product the product
+     */
+    public void put(Product product) {
+        store(copy(product), System.nanoTime(), stockInvalidations.get());
+    }
+
+    /**
+     * Cache a product unless a newer version is already cached, e.g. put by a save while it was being loaded.
+     *
+     * @return the product that is cached now
+     */
+    private Product store(Product product, long now, long invalidations) {
+        synchronized (entries) {
+            Entry current = entries.get(product.getId());
+            if (current != null && current.product().getVersion() != null && product.getVersion() != null
+                    && current.product().getVersion() > product.getVersion()) {
+                return current.product();
+            }
+            entries.put(product.getId(), new Entry(product, now, now, stockInvalidations.get() != invalidations));
+            return product;
+        }
+    }
+
+    /**
+     * Remove a product once the current transaction commits, or immediately outside a transaction.
+     *
+     * @param id the product ID
+     */
+    public void evict(Long id) {
+        afterCommit(() -> {
+            synchronized (entries) {
+                entries.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Mark the stock of products stale once the current transaction commits, or immediately outside a transaction.
+     * Name and price stay cached; only the stock columns are reloaded on the next read.
+     *
+     * @param ids the IDs of the products whose stock or reservations changed
+     */
+    public void invalidateStock(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        afterCommit(() -> {
+            stockInvalidations.incrementAndGet();
+            synchronized (entries) {
+                for (Long id : copy) {
+                    Entry entry = entries.get(id);
+                    if (entry != null) {
+                        entries.put(id, new Entry(entry.product(), entry.loadedAt(), entry.stockLoadedAt(), true));
+                    }
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .priceCents(product.getPriceCents())
+                .stock(product.getStock())
+                .reserved(product.getReserved())
+                .version(product.getVersion())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of cached products whose stock was checked against the database because it was stale.
+     *
+     * @return the stock refresh count
+     */
+    public long getStockRefreshCount() {
+        return stockRefreshes.sum();
+    }
+
+    /**
+     * Get the number of products evicted because the cache was full.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of products dropped because their TTL had elapsed.
+     *
+     * @return the expiration count
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private record Entry(Product product, long loadedAt, long stockLoadedAt, boolean stockStale) {
+    }
+}
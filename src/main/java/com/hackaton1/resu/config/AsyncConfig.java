@@ -0,0 +1,127 @@
+package com.hackaton1.resu.config;
+
+import com.hackaton1.resu.async.InstrumentedTaskExecutor;
+import com.hackaton1.resu.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration of the executors that run the order event listeners.
+ * Every listener lane gets its own executor, so slow notifications cannot delay inventory updates.
+ * Tasks run in the span that was current when they were submitted.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig {
+
+    public static final String INVENTORY_EXECUTOR = "inventoryExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+
+    /**
+     * Platform thread pools, one per listener lane.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    static class PlatformThreadExecutors {
+
+        @Bean(name = "taskExecutor")
+        public InstrumentedTaskExecutor taskExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return threadPool("OrderAsync-", properties.getShared(), tracer);
+        }
+
+        @Bean(name = INVENTORY_EXECUTOR)
+        public InstrumentedTaskExecutor inventoryExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return threadPool("Inventory-", properties.getInventory(), tracer);
+        }
+
+        @Bean(name = EMAIL_EXECUTOR)
+        public InstrumentedTaskExecutor emailExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return threadPool("Email-", properties.getEmail(), tracer);
+        }
+
+        @Bean(name = AUDIT_EXECUTOR)
+        public InstrumentedTaskExecutor auditExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return threadPool("Audit-", properties.getAudit(), tracer);
+        }
+    }
+
+    /**
+     * Virtual-thread executors, one per listener lane, used when spring.threads.virtual.enabled is set on Java 21+.
+     * Each task gets its own virtual thread; the lane's concurrency limit bounds how many hold a JDBC connection.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static class VirtualThreadExecutors {
+
+        @Bean(name = "taskExecutor")
+        public SimpleAsyncTaskExecutor taskExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return virtualThreads("OrderAsync-", properties.getShared(), tracer);
+        }
+
+        @Bean(name = INVENTORY_EXECUTOR)
+        public SimpleAsyncTaskExecutor inventoryExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return virtualThreads("Inventory-", properties.getInventory(), tracer);
+        }
+
+        @Bean(name = EMAIL_EXECUTOR)
+        public SimpleAsyncTaskExecutor emailExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return virtualThreads("Email-", properties.getEmail(), tracer);
+        }
+
+        @Bean(name = AUDIT_EXECUTOR)
+        public SimpleAsyncTaskExecutor auditExecutor(AsyncExecutorProperties properties, Tracer tracer) {
+            return virtualThreads("Audit-", properties.getAudit(), tracer);
+        }
+    }
+
+    /**
+     * Create a bounded, instrumented thread pool for one listener lane.
+     *
+     * @param threadNamePrefix the prefix of the pool thread names
+     * @param pool the lane configuration
+     * @param taskDecorator the decorator that carries context of the submitting thread over to the tasks
+     * @return the initialized executor
+     */
+    static InstrumentedTaskExecutor threadPool(String threadNamePrefix, AsyncExecutorProperties.Pool pool, TaskDecorator taskDecorator) {
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor();
+        executor.setTaskDecorator(taskDecorator);
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setThreadPriority(pool.getThreadPriority());
+        executor.setRejectedExecutionHandler(switch (pool.getRejectionPolicy()) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> executor.callerRunsPolicy();
+            case BLOCK -> executor.blockPolicy(pool.getBlockTimeout());
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("Listener executor {}*: core={}, max={}, queue={}, rejection policy={}, priority={}",
+                threadNamePrefix, pool.getCorePoolSize(), pool.getMaxPoolSize(), pool.getQueueCapacity(),
+                pool.getRejectionPolicy(), pool.getThreadPriority());
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreads(String threadNamePrefix, AsyncExecutorProperties.Pool pool, TaskDecorator taskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setTaskDecorator(taskDecorator);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(pool.getVirtualConcurrencyLimit());
+        executor.setTaskTerminationTimeout(30_000);
+        log.info("Listener executor {}*: virtual threads, concurrency limit={}",
+                threadNamePrefix, pool.getVirtualConcurrencyLimit());
+        return executor;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the executors that run the order event listeners.
+ * Each listener lane has its own pool so a backlog in one cannot starve the others.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.async")
+public class AsyncExecutorProperties {
+
+    /**
+     * Pool for listeners without a dedicated lane.
+     */
+    private Pool shared = new Pool(2, 4, 100, RejectionPolicy.CALLER_RUNS, Thread.NORM_PRIORITY);
+
+    /**
+     * Pool for stock deductions; latency critical, so it throttles the relay instead of shedding.
+     */
+    private Pool inventory = new Pool(2, 4, 100, RejectionPolicy.CALLER_RUNS, Thread.NORM_PRIORITY + 2);
+
+    /**
+     * Pool for customer notifications; best effort, so excess work is shed.
+     */
+    private Pool email = new Pool(1, 2, 500, RejectionPolicy.ABORT, Thread.MIN_PRIORITY + 2);
+
+    /**
+     * Pool for audit logging; best effort, so excess work is shed.
+     */
+    private Pool audit = new Pool(1, 1, 500, RejectionPolicy.ABORT, Thread.MIN_PRIORITY + 2);
+
+    @Data
+    @NoArgsConstructor
+    public static class Pool {
+
+        private int corePoolSize;
+
+        private int maxPoolSize;
+
+        private int queueCapacity;
+
+        /**
+         * What to do with a task when all threads are busy and the queue is full.
+         */
+        private RejectionPolicy rejectionPolicy;
+
+        /**
+         * Scheduling priority of the pool threads.
+         */
+        private int threadPriority;
+
+        /**
+         * How long the BLOCK policy waits for queue space before rejecting the task.
+         */
+        private Duration blockTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of tasks in flight when spring.threads.virtual.enabled is set.
+         * Virtual threads are not pooled, so this limit is what keeps the listeners from
+         * exhausting the Hikari connection pool.
+         */
+        private int virtualConcurrencyLimit = 16;
+
+        public Pool(int corePoolSize, int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy, int threadPriority) {
+            this.corePoolSize = corePoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+            this.threadPriority = threadPriority;
+        }
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * Reject the task. For best-effort listeners the work is shed; for the others the event
+         * stays pending in the outbox and is redelivered by the next relay poll.
+         */
+        ABORT,
+        /**
+         * Run the task on the submitting thread, which slows the producer down.
+         */
+        CALLER_RUNS,
+        /**
+         * Block the submitting thread until queue space frees up or the block timeout expires.
+         */
+        BLOCK
+    }
+}
@@ -0,0 +1,51 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the audit sink that records created orders.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.audit")
+public class AuditProperties {
+
+    /**
+     * Whether audit records are written at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory of the audit files.
+     */
+    private Path directory = Path.of("logs", "audit");
+
+    /**
+     * Number of records buffered in memory; records arriving while the buffer is full are dropped.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Maximum number of records written and synced to disk together.
+     */
+    private int batchSize = 256;
+
+    /**
+     * Size after which a new audit file is started; a new file is also started every day.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How long audit files are kept before being deleted.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Fraction of orders that are audited, chosen by order ID so the same orders are sampled everywhere.
+     */
+    private double sampleRate = 1.0;
+}
@@ -1,12 +1,18 @@
 package com.hackaton1.resu.config;
 
 import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
+import com.hackaton1.resu.repository.IdSequences;
+import com.hackaton1.resu.repository.OrderRepository;
 import com.hackaton1.resu.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
 
 /**
  * Configuration for initializing sample data.
@@ -17,6 +23,9 @@ import org.springframework.context.annotation.Configuration;
 public class DataInitializer {
 
     private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+    private final IdSequences idSequences;
 
     /**
      * Initialize sample data.
@@ -28,36 +37,42 @@ public class DataInitializer {
         return args -> {
             log.info("Initializing sample data...");
             
+            // Before anything is inserted, so no new row takes an ID that existing rows already use
+            List<String> advanced = idSequences.advancePastExistingIds();
+            if (!advanced.isEmpty()) {
+                log.info("Advanced ID sequences {} past the existing rows", advanced);
+            }
+            
             if (productRepository.count() == 0) {
                 log.info("Creating sample products");
                 
                 Product product1 = Product.builder()
                         .name("Laptop")
-                        .price(1200.0)
+                        .priceCents(120000)
                         .stock(10)
                         .build();
                 
                 Product product2 = Product.builder()
                         .name("Smartphone")
-                        .price(800.0)
+                        .priceCents(80000)
                         .stock(20)
                         .build();
                 
                 Product product3 = Product.builder()
                         .name("Headphones")
-                        .price(150.0)
+                        .priceCents(15000)
                         .stock(30)
                         .build();
                 
                 Product product4 = Product.builder()
                         .name("Monitor")
-                        .price(300.0)
+                        .priceCents(30000)
                         .stock(15)
                         .build();
                 
                 Product product5 = Product.builder()
                         .name("Keyboard")
-                        .price(80.0)
+                        .priceCents(8000)
                         .stock(25)
                         .build();
                 
@@ -72,6 +87,27 @@ public class DataInitializer {
                 log.info("Products already exist, skipping initialization");
             }
             
+            int backfilled = orderRepository.backfillTotals();
+            if (backfilled > 0) {
+                log.info("Stored totals of {} existing orders", backfilled);
+            }
+            
+            int named = orderRepository.backfillItemProductNames();
+            if (named > 0) {
+                log.info("Stored product names of {} existing order items", named);
+            }
+            
+            int summarized;
+            try {
+                summarized = customerOrderSummaryRepository.backfillUnappliedOrders();
+            } catch (DuplicateKeyException e) {
+                // A new order of the same customer created the summary first; it now exists, so update it
+                summarized = customerOrderSummaryRepository.backfillUnappliedOrders();
+            }
+            if (summarized > 0) {
+                log.info("Added {} existing orders to the customer summaries", summarized);
+            }
+            
             log.info("Sample data initialization completed");
         };
     }
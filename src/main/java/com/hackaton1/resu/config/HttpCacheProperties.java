@@ -0,0 +1,27 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the Cache-Control hints sent with cacheable responses.
+ * Clients revalidate with If-None-Match once the max age has passed.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.http-cache")
+public class HttpCacheProperties {
+
+    /**
+     * How long clients and shared caches may use a product or product list without revalidating.
+     * Kept short because the body includes the stock.
+     */
+    private Duration productMaxAge = Duration.ofSeconds(5);
+
+    /**
+     * How long a client may use an order without revalidating.
+     * Orders do not change once created, but they are only cached privately since they belong to one customer.
+     */
+    private Duration orderMaxAge = Duration.ofHours(1);
+}
@@ -0,0 +1,24 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for coalescing inventory updates of several orders into one flush.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.inventory.batch")
+public class InventoryBatchProperties {
+
+    /**
+     * How long the first order of a batch waits for others before the batch is flushed.
+     */
+    private Duration window = Duration.ofMillis(10);
+
+    /**
+     * Number of orders that flushes a batch before its window has elapsed.
+     */
+    private int maxSize = 100;
+}
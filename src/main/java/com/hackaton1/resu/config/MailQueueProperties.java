@@ -0,0 +1,54 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the outbound email queue and its dispatcher.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.mail")
+public class MailQueueProperties {
+
+    /**
+     * Sender address of outgoing emails.
+     */
+    private String from = "orders@resu.local";
+
+    /**
+     * Maximum number of emails sent over one SMTP connection.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Delay between two polls of the queue once it has been drained.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of emails sent per second, across batches.
+     */
+    private int ratePerSecond = 20;
+
+    /**
+     * Number of failed sends after which an email is moved to the dead letters.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay before the first retry of a failed email; doubled for every further attempt.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound of the delay between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /**
+     * How long sent emails are kept before being purged.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,112 @@
+package com.hackaton1.resu.config;
+
+import com.hackaton1.resu.async.InstrumentedTaskExecutor;
+import com.hackaton1.resu.audit.AuditSink;
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.mail.MailDispatcher;
+import com.hackaton1.resu.retry.ConcurrencyRetryPolicy;
+import com.hackaton1.resu.service.InventoryBatcher;
+import com.hackaton1.resu.service.OutboxRelay;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters the components keep themselves as Micrometer meters.
+ * The meters read the counters when scraped, so the hot paths only pay for their own LongAdders.
+ * Pool size, active threads and queue depth of the listener executors are already published by
+ * Spring Boot as executor.* meters; these add queue wait, run time and rejections.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder listenerExecutorMetrics(ListableBeanFactory beanFactory) {
+        // Looked up when binding, as the executors only exist in platform-thread mode
+        return registry -> beanFactory.getBeansOfType(InstrumentedTaskExecutor.class).forEach((name, executor) -> {
+            FunctionTimer.builder("resu.executor.queue.wait", executor,
+                            InstrumentedTaskExecutor::getCompletedCount,
+                            e -> e.getTotalQueueWait().toNanos(), TimeUnit.NANOSECONDS)
+                    .description("Time listener tasks waited in the executor queue")
+                    .tag("name", name)
+                    .register(registry);
+            TimeGauge.builder("resu.executor.queue.wait.max", executor, TimeUnit.NANOSECONDS,
+                            e -> e.getMaxQueueWait().toNanos())
+                    .tag("name", name)
+                    .register(registry);
+            FunctionTimer.builder("resu.executor.run", executor,
+                            InstrumentedTaskExecutor::getCompletedCount,
+                            e -> e.getTotalRunTime().toNanos(), TimeUnit.NANOSECONDS)
+                    .description("Time listener tasks ran on the executor")
+                    .tag("name", name)
+                    .register(registry);
+            counter(registry, "resu.executor.rejected", executor, InstrumentedTaskExecutor::getRejectedCount, "name", name);
+            counter(registry, "resu.executor.caller.runs", executor, InstrumentedTaskExecutor::getCallerRunsCount, "name", name);
+        });
+    }
+
+    @Bean
+    public MeterBinder retryMetrics(ConcurrencyRetryPolicy retryPolicy) {
+        return registry -> {
+            counter(registry, "resu.retry.conflicts", retryPolicy, ConcurrencyRetryPolicy::getConflictCount);
+            counter(registry, "resu.retry.retries", retryPolicy, ConcurrencyRetryPolicy::getRetryCount);
+            counter(registry, "resu.retry.exhausted", retryPolicy, ConcurrencyRetryPolicy::getExhaustedCount);
+        };
+    }
+
+    @Bean
+    public MeterBinder outboxMetrics(OutboxRelay outboxRelay, InventoryBatcher inventoryBatcher) {
+        return registry -> {
+            counter(registry, "resu.outbox.shed", outboxRelay, OutboxRelay::getShedCount);
+            counter(registry, "resu.outbox.dead.lettered", outboxRelay, OutboxRelay::getDeadLetteredCount);
+            counter(registry, "resu.inventory.flushes", inventoryBatcher, InventoryBatcher::getFlushCount);
+            counter(registry, "resu.inventory.flushed.orders", inventoryBatcher, InventoryBatcher::getFlushedOrderCount);
+        };
+    }
+
+    @Bean
+    public MeterBinder productCacheMetrics(ProductCache productCache) {
+        return registry -> {
+            Gauge.builder("resu.product.cache.size", productCache, ProductCache::getSize).register(registry);
+            counter(registry, "resu.product.cache.requests", productCache, ProductCache::getHitCount, "result", "hit");
+            counter(registry, "resu.product.cache.requests", productCache, ProductCache::getMissCount, "result", "miss");
+            counter(registry, "resu.product.cache.stock.refreshes", productCache, ProductCache::getStockRefreshCount);
+            counter(registry, "resu.product.cache.removals", productCache, ProductCache::getEvictionCount, "cause", "evicted");
+            counter(registry, "resu.product.cache.removals", productCache, ProductCache::getExpirationCount, "cause", "expired");
+        };
+    }
+
+    @Bean
+    public MeterBinder auditMetrics(AuditSink auditSink) {
+        return registry -> {
+            counter(registry, "resu.audit.records", auditSink, AuditSink::getWrittenCount, "outcome", "written");
+            counter(registry, "resu.audit.records", auditSink, AuditSink::getDroppedCount, "outcome", "dropped");
+            counter(registry, "resu.audit.records", auditSink, AuditSink::getSampledOutCount, "outcome", "sampled_out");
+            counter(registry, "resu.audit.syncs", auditSink, AuditSink::getSyncCount);
+            Gauge.builder("resu.audit.queue.depth", auditSink, AuditSink::getQueueDepth).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mailMetrics(MailDispatcher mailDispatcher) {
+        return registry -> {
+            counter(registry, "resu.mail.sent", mailDispatcher, MailDispatcher::getSentCount);
+            counter(registry, "resu.mail.failures", mailDispatcher, MailDispatcher::getFailedCount);
+            counter(registry, "resu.mail.dead.lettered", mailDispatcher, MailDispatcher::getDeadLetteredCount);
+        };
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source,
+                                    ToDoubleFunction<T> count, String... tags) {
+        FunctionCounter.builder(name, source, count).tags(tags).register(registry);
+    }
+}
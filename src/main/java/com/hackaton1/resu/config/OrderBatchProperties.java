@@ -0,0 +1,22 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for creating orders in bulk through POST /orders/batch.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.orders.batch")
+public class OrderBatchProperties {
+
+    /**
+     * Maximum number of orders accepted in one request.
+     */
+    private int maxOrders = 10_000;
+
+    /**
+     * Number of orders written per transaction; the persistence context is cleared between chunks.
+     */
+    private int chunkSize = 500;
+}
@@ -0,0 +1,39 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for relaying outbox events to the order listeners.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.outbox")
+public class OutboxProperties {
+
+    /**
+     * Maximum number of events relayed per poll round trip.
+     */
+    private int batchSize = 25;
+
+    /**
+     * Delay between two polls once the outbox has been drained.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Number of failed deliveries after which an event is dead-lettered and no longer relayed.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Maximum time to wait for the listeners of a batch before leaving its events for the next poll.
+     */
+    private Duration dispatchTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long relayed events are kept before being purged.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,30 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-process product cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.product-cache")
+public class ProductCacheProperties {
+
+    /**
+     * Maximum number of cached products; the least recently used product is evicted beyond it.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * How long a cached product is used before it is reloaded from the database.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * How long the cached stock of a product is used before only its stock columns are reloaded.
+     * Stock changes with every order, so it is kept much fresher than name and price.
+     */
+    private Duration stockTtl = Duration.ofSeconds(1);
+}
@@ -0,0 +1,34 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for retrying operations that fail on concurrent modification of a row.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.retry")
+public class RetryProperties {
+
+    /**
+     * Maximum number of attempts, including the first one.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Backoff before the first retry; doubled on every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(5);
+
+    /**
+     * Upper bound for the backoff between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+    /**
+     * Fraction (0-1) of each backoff that is randomized so that competing writers spread out.
+     */
+    private double jitter = 0.5;
+}
@@ -0,0 +1,22 @@
+package com.hackaton1.resu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for tracing orders through the request, the outbox relay and the listeners.
+ */
+@Data
+@ConfigurationProperties(prefix = "resu.tracing")
+public class TracingProperties {
+
+    /**
+     * Whether finished spans are kept for querying; spans are still propagated and logged when disabled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of most recent finished spans kept in memory.
+     */
+    private int maxSpans = 10_000;
+}
@@ -0,0 +1,65 @@
+package com.hackaton1.resu.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+
+/**
+ * Helpers for conditional GET requests.
+ * Responses carry a strong ETag, Last-Modified and Cache-Control; a request whose If-None-Match
+ * still matches is answered with 304 Not Modified, before the body is loaded where the ETag is cheaper than the body.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Check whether the request carries an If-None-Match header.
+     *
+     * @param request the request
+     * @return true if the client sent an ETag to revalidate
+     */
+    static boolean hasETag(ServletWebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Check the If-None-Match header of the request against the current ETag.
+     * If it matches, the response becomes 304 Not Modified and the handler should return null.
+     *
+     * @param request the request
+     * @param eTag the current ETag
+     * @param cacheControl the Cache-Control sent with the response
+     * @return true if the client's copy is current
+     */
+    static boolean isNotModified(ServletWebRequest request, String eTag, CacheControl cacheControl) {
+        if (!hasETag(request) || !request.checkNotModified(eTag)) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return true;
+    }
+
+    /**
+     * Start a 200 (OK) response with caching headers. Spring answers it with 304 Not Modified
+     * instead of writing the body if the request's conditional headers still match.
+     *
+     * @param eTag the ETag
+     * @param lastModified the last modification time, or null if unknown
+     * @param cacheControl the Cache-Control
+     * @return the response builder
+     */
+    static ResponseEntity.BodyBuilder ok(String eTag, Instant lastModified, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response;
+    }
+}
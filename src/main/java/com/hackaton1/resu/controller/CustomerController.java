@@ -0,0 +1,63 @@
+package com.hackaton1.resu.controller;
+
+import com.hackaton1.resu.dto.CustomerSummaryDTO;
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.service.OrderQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the orders of a customer.
+ */
+@RestController
+@RequestMapping("/customers")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final OrderQueryService orderQueryService;
+
+    /**
+     * GET /customers/{email}/orders : Get a page of the orders of the "email" customer, ordered by ID.
+     *
+     * @param email the customer email
+     * @param afterId the cursor: only orders with a greater ID are returned
+     * @param size the page size, capped at 500
+     * @return the ResponseEntity with status 200 (OK) and the list of orders in body,
+     * with the cursor of the next page in the X-Next-Cursor header if there may be more orders
+     */
+    @GetMapping("/{email}/orders")
+    public ResponseEntity<List<OrderDTO>> getCustomerOrders(
+            @PathVariable String email,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("REST request to get Orders of customer : {} after : {}, size : {}", email, afterId, size);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<OrderDTO> orderDTOs = orderQueryService.getOrdersByCustomerPage(email, afterId, pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orderDTOs.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(orderDTOs.get(orderDTOs.size() - 1).getId()));
+        }
+        return response.body(orderDTOs);
+    }
+
+    /**
+     * GET /customers/{email}/summary : Get the order count, lifetime total and last order date of the "email" customer.
+     *
+     * @param email the customer email
+     * @return the ResponseEntity with status 200 (OK) and with body the customer summary
+     */
+    @GetMapping("/{email}/summary")
+    public ResponseEntity<CustomerSummaryDTO> getCustomerSummary(@PathVariable String email) {
+        log.debug("REST request to get summary of customer : {}", email);
+        return ResponseEntity.ok(orderQueryService.getCustomerSummary(email));
+    }
+}
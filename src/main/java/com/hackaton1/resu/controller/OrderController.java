@@ -1,19 +1,38 @@
 package com.hackaton1.resu.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hackaton1.resu.config.HttpCacheProperties;
+import com.hackaton1.resu.config.OrderBatchProperties;
 import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.OrderBatchResultDTO;
 import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.exception.InsufficientStockException;
 import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
 import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.service.OrderBatchService;
+import com.hackaton1.resu.service.OrderQueryService;
 import com.hackaton1.resu.service.OrderService;
+import com.hackaton1.resu.tracing.SpanStore;
+import com.hackaton1.resu.tracing.Tracer;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * REST controller for managing orders.
@@ -24,36 +43,92 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final OrderBatchService orderBatchService;
+    private final OrderBatchProperties orderBatchProperties;
+    private final HttpCacheProperties httpCacheProperties;
     private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final Tracer tracer;
 
     /**
-     * GET /orders : Get all orders.
+     * GET /orders : Get a page of orders, ordered by ID.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of orders in body
+     * @param afterId the cursor: only orders with a greater ID are returned
+     * @param size the page size, capped at 500
+     * @return the ResponseEntity with status 200 (OK) and the list of orders in body,
+     * with the cursor of the next page in the X-Next-Cursor header if there may be more orders
      */
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        log.debug("REST request to get all Orders");
-        List<Order> orders = orderService.getAllOrders();
-        List<OrderDTO> orderDTOs = orders.stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(orderDTOs);
+    public ResponseEntity<List<OrderDTO>> getAllOrders(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("REST request to get Orders after : {}, size : {}", afterId, size);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<OrderDTO> orderDTOs = orderQueryService.getOrdersPage(afterId, pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orderDTOs.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(orderDTOs.get(orderDTOs.size() - 1).getId()));
+        }
+        return response.body(orderDTOs);
+    }
+
+    /**
+     * GET /orders/stream : Stream all orders as newline-delimited JSON.
+     *
+     * @return the ResponseEntity with status 200 (OK) and one order per line in body
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.debug("REST request to stream all Orders");
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                orderService.streamAllOrders(STREAM_CHUNK_SIZE, chunk -> {
+                    try {
+                        for (Order order : chunk) {
+                            writer.write(orderMapper.toDTO(order));
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * GET /orders/{id} : Get the "id" order.
      *
      * @param id the id of the order to retrieve
-     * @return the ResponseEntity with status 200 (OK) and with body the order, or with status 404 (Not Found)
+     * @param request the request, checked for an If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and with body the order,
+     * or with status 304 (Not Modified) if the order still exists and the If-None-Match header holds its ETag,
+     * or with status 404 (Not Found)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id, ServletWebRequest request) {
         log.debug("REST request to get Order : {}", id);
-        return orderService.getOrderById(id)
-                .map(orderMapper::toDTO)
-                .map(ResponseEntity::ok)
+        // Orders do not change once created: items keep the product name and price they were ordered with,
+        // so revalidating only needs to know the order still exists
+        String eTag = "\"order-" + id + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(httpCacheProperties.getOrderMaxAge()).cachePrivate();
+        if (ConditionalRequests.hasETag(request) && orderQueryService.existsById(id)
+                && ConditionalRequests.isNotModified(request, eTag, cacheControl)) {
+            return null;
+        }
+        
+        return orderQueryService.getOrderById(id)
+                .map(order -> ConditionalRequests.ok(eTag, order.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(), cacheControl)
+                        .body(order))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -61,21 +136,50 @@ public class OrderController {
      * POST /orders : Create a new order.
      *
      * @param request the order to create
-     * @return the ResponseEntity with status 201 (Created) and with body the new order
+     * @return the ResponseEntity with status 201 (Created) and with body the new order,
+     * or with status 409 (Conflict) if there is not enough stock for some of its products
      */
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody CreateOrderRequest request) {
         log.debug("REST request to create Order : {}", request);
         
         try {
-            Order order = orderMapper.toEntity(request);
-            Order result = orderService.createOrder(order);
+            Order order = stage("order.map", pipelineMetrics.getMappingTimer(), () -> orderMapper.toEntity(request));
+            Order result = stage("order.save", pipelineMetrics.getSaveTimer(), () -> orderService.createOrder(order));
+            tracer.tag(SpanStore.ORDER_ID, result.getId());
             OrderDTO responseDTO = orderMapper.toDTO(result);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
+        } catch (InsufficientStockException e) {
+            pipelineMetrics.countCreateStockFailure();
+            log.warn("Rejected order for customer {}: {}", request.getCustomerEmail(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             log.error("Failed to create order", e);
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * POST /orders/batch : Create many orders at once.
+     * Each order succeeds or fails on its own; invalid orders and orders without enough stock are reported
+     * in the body instead of failing the batch. If the batch stops on an error, the orders not created
+     * by then are reported as failed, so only those need to be sent again.
+     *
+     * @param requests the orders to create
+     * @return the ResponseEntity with status 200 (OK) and with body the outcome of every order in request order,
+     * or with status 400 (Bad Request) if the batch is empty or larger than the configured maximum
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResultDTO> createOrders(@RequestBody List<CreateOrderRequest> requests) {
+        log.debug("REST request to create a batch of {} Orders", requests.size());
+        if (requests.isEmpty() || requests.size() > orderBatchProperties.getMaxOrders()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderBatchService.createOrders(requests));
+    }
+
+    private <T> T stage(String name, Timer timer, Supplier<T> work) {
+        return tracer.trace(name, () -> timer.record(work));
+    }
+}
@@ -1,15 +1,28 @@
 package com.hackaton1.resu.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hackaton1.resu.config.HttpCacheProperties;
+import com.hackaton1.resu.dto.CatalogVersion;
 import com.hackaton1.resu.dto.ProductDTO;
+import com.hackaton1.resu.exception.InsufficientStockException;
+import com.hackaton1.resu.model.Money;
 import com.hackaton1.resu.model.Product;
 import com.hackaton1.resu.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,35 +35,89 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final ProductService productService;
+    private final HttpCacheProperties httpCacheProperties;
+    private final ObjectMapper objectMapper;
 
     /**
-     * GET /products : Get all products.
+     * GET /products : Get a page of products, ordered by ID.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of products in body
+     * @param afterId the cursor: only products with a greater ID are returned
+     * @param size the page size, capped at 500
+     * @param request the request, checked for an If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of products in body,
+     * with the cursor of the next page in the X-Next-Cursor header if there may be more products,
+     * or with status 304 (Not Modified) if no product changed since the ETag in If-None-Match
      */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        log.debug("REST request to get all Products");
-        List<Product> products = productService.getAllProducts();
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size,
+            ServletWebRequest request) {
+        log.debug("REST request to get Products after : {}, size : {}", afterId, size);
+        // Read before the page, so the ETag is never newer than the body it is sent with
+        CatalogVersion catalogVersion = productService.getCatalogVersion();
+        String eTag = catalogVersion.eTag();
+        if (ConditionalRequests.isNotModified(request, eTag, productCacheControl())) {
+            return null;
+        }
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Product> products = productService.getProductsPage(afterId, pageSize);
         List<ProductDTO> productDTOs = products.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(productDTOs);
+        
+        ResponseEntity.BodyBuilder response = ConditionalRequests.ok(eTag, catalogVersion.lastModified(), productCacheControl());
+        if (products.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(products.get(products.size() - 1).getId()));
+        }
+        return response.body(productDTOs);
+    }
+
+    /**
+     * GET /products/stream : Stream all products as newline-delimited JSON.
+     *
+     * @return the ResponseEntity with status 200 (OK) and one product per line in body
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        log.debug("REST request to stream all Products");
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                productService.streamAllProducts(STREAM_CHUNK_SIZE, chunk -> {
+                    try {
+                        for (Product product : chunk) {
+                            writer.write(convertToDTO(product));
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * GET /products/{id} : Get the "id" product.
      *
      * @param id the id of the product to retrieve
-     * @return the ResponseEntity with status 200 (OK) and with body the product, or with status 404 (Not Found)
+     * @return the ResponseEntity with status 200 (OK) and with body the product,
+     * or with status 304 (Not Modified) if the product did not change since the ETag in If-None-Match,
+     * or with status 404 (Not Found)
      */
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id) {
         log.debug("REST request to get Product : {}", id);
         return productService.getProductById(id)
-                .map(this::convertToDTO)
-                .map(ResponseEntity::ok)
+                .map(product -> ConditionalRequests.ok(eTag(product), product.getUpdatedAt(), productCacheControl())
+                        .body(convertToDTO(product)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -77,7 +144,9 @@ public class ProductController {
      * @param id the id of the product to update
      * @param productDTO the product to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated product,
-     * or with status 404 (Not Found) if the product could not be found
+     * or with status 404 (Not Found) if the product could not be found,
+     * or with status 409 (Conflict) if the product was modified concurrently
+     * or if the new stock is below the units reserved by pending orders
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
@@ -91,10 +160,19 @@ public class ProductController {
         
         productDTO.setId(id);
         Product product = convertToEntity(productDTO);
-        Product result = productService.saveProduct(product);
-        ProductDTO responseDTO = convertToDTO(result);
         
-        return ResponseEntity.ok(responseDTO);
+        try {
+            Product result = productService.saveProduct(product);
+            ProductDTO responseDTO = convertToDTO(result);
+            
+            return ResponseEntity.ok(responseDTO);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent modification of Product : {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InsufficientStockException e) {
+            log.warn("Rejected stock {} of Product {} below its reserved units", productDTO.getStock(), id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
@@ -110,6 +188,20 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Get the strong ETag of a product; its version is bumped by every write, including stock changes.
+     *
+     * @param product the product
+     * @return the quoted ETag
+     */
+    private static String eTag(Product product) {
+        return "\"product-" + product.getId() + "-" + product.getVersion() + "\"";
+    }
+
+    private CacheControl productCacheControl() {
+        return CacheControl.maxAge(httpCacheProperties.getProductMaxAge()).cachePublic();
+    }
+
     /**
      * Convert Product entity to ProductDTO.
      *
@@ -120,8 +212,9 @@ public class ProductController {
         return ProductDTO.builder()
                 .id(product.getId())
                 .name(product.getName())
-                .price(product.getPrice())
+                .price(Money.toDecimal(product.getPriceCents()))
                 .stock(product.getStock())
+                .version(product.getVersion())
                 .build();
     }
 
@@ -135,8 +228,9 @@ public class ProductController {
         return Product.builder()
                 .id(productDTO.getId())
                 .name(productDTO.getName())
-                .price(productDTO.getPrice())
+                .priceCents(Money.toMinorUnits(productDTO.getPrice()))
                 .stock(productDTO.getStock())
+                .version(productDTO.getVersion())
                 .build();
     }
 }
\ No newline at end of file
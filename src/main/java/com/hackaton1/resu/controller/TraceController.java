@@ -0,0 +1,50 @@
+package com.hackaton1.resu.controller;
+
+import com.hackaton1.resu.tracing.SpanRecord;
+import com.hackaton1.resu.tracing.SpanStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for querying the spans recorded in this process.
+ */
+@RestController
+@RequestMapping("/traces")
+@RequiredArgsConstructor
+@Slf4j
+public class TraceController {
+
+    private final SpanStore spanStore;
+
+    /**
+     * GET /traces/{traceId} : Get the spans of the "traceId" trace.
+     *
+     * @param traceId the trace ID, as returned in the X-Trace-Id header
+     * @return the ResponseEntity with status 200 (OK) and the spans ordered by start time in body,
+     * or with status 404 (Not Found) if no span of the trace is kept
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<List<SpanRecord>> getTrace(@PathVariable String traceId) {
+        log.debug("REST request to get Trace : {}", traceId);
+        List<SpanRecord> spans = spanStore.findTrace(traceId);
+        return spans.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(spans);
+    }
+
+    /**
+     * GET /traces?orderId={orderId} : Get the spans of the "orderId" order, from its request to its listeners.
+     *
+     * @param orderId the order ID
+     * @return the ResponseEntity with status 200 (OK) and the spans ordered by start time in body,
+     * or with status 404 (Not Found) if no span of the order is kept
+     */
+    @GetMapping(params = "orderId")
+    public ResponseEntity<List<SpanRecord>> getOrderTrace(@RequestParam long orderId) {
+        log.debug("REST request to get Trace of Order : {}", orderId);
+        List<SpanRecord> spans = spanStore.findOrder(orderId);
+        return spans.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(spans);
+    }
+}
@@ -0,0 +1,25 @@
+package com.hackaton1.resu.dto;
+
+import java.time.Instant;
+
+/**
+ * Aggregate version of the product catalog.
+ * Every product write bumps a version and the last modification time, inserts raise the count
+ * and usually the maximum ID, and deletes lower the count, so any change yields a different ETag.
+ */
+public record CatalogVersion(
+        Long productCount,
+        Long maxId,
+        Long versionSum,
+        Instant lastModified) {
+
+    /**
+     * Get the strong entity tag of the catalog.
+     *
+     * @return the quoted ETag
+     */
+    public String eTag() {
+        long modified = lastModified == null ? 0 : lastModified.toEpochMilli();
+        return "\"catalog-" + productCount + "-" + maxId + "-" + versionSum + "-" + modified + "\"";
+    }
+}
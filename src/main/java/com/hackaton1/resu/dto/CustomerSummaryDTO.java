@@ -0,0 +1,27 @@
+package com.hackaton1.resu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the order summary of a customer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSummaryDTO {
+    
+    private String customerEmail;
+    
+    private long orderCount;
+    
+    private BigDecimal lifetimeTotal;
+    
+    private LocalDateTime lastOrderDate;
+}
@@ -0,0 +1,57 @@
+package com.hackaton1.resu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a batch of order creations.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResultDTO {
+
+    private int created;
+
+    private int rejected;
+
+    @Builder.Default
+    private List<Entry> results = new ArrayList<>();
+
+    /**
+     * Outcome of one order of the batch, in request order.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Entry {
+
+        private int index;
+
+        private Status status;
+
+        private Long orderId;
+
+        private BigDecimal total;
+
+        private String error;
+
+        private List<Long> productIds;
+    }
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        INSUFFICIENT_STOCK,
+        // Not created because the batch stopped on an error, so the order can be sent again
+        FAILED
+    }
+}
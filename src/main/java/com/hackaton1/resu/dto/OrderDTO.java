@@ -1,5 +1,6 @@
 package com.hackaton1.resu.dto;
 
+import com.hackaton1.resu.model.Money;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,5 +36,18 @@ public class OrderDTO {
     
     private LocalDateTime createdAt;
     
-    private Double total;
+    private BigDecimal total;
+    
+    private Integer itemCount;
+    
+    /**
+     * Constructor used by JPQL projections; items are attached afterwards.
+     */
+    public OrderDTO(Long id, String customerEmail, LocalDateTime createdAt, Long totalCents, Integer itemCount) {
+        this.id = id;
+        this.customerEmail = customerEmail;
+        this.createdAt = createdAt;
+        this.total = totalCents == null ? null : Money.toDecimal(totalCents);
+        this.itemCount = itemCount;
+    }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 /**
  * DTO for OrderItem entity.
  */
@@ -27,7 +29,7 @@ public class OrderItemDTO {
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
     
-    private Double price;
+    private BigDecimal price;
     
-    private Double subtotal;
+    private BigDecimal subtotal;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.hackaton1.resu.dto;
+
+import com.hackaton1.resu.model.Money;
+
+/**
+ * Order item projected straight from the database, together with the ID of the order it belongs to.
+ */
+public record OrderItemRow(
+        Long orderId,
+        Long id,
+        Long productId,
+        String productName,
+        Integer quantity,
+        Long priceCents) {
+
+    /**
+     * Convert to the DTO exposed by the API.
+     *
+     * @return the order item DTO
+     */
+    public OrderItemDTO toDTO() {
+        return new OrderItemDTO(id, productId, productName, quantity,
+                Money.toDecimal(priceCents), Money.toDecimal(Money.times(priceCents, quantity)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.hackaton1.resu.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 /**
  * DTO for Product entity.
  */
@@ -24,9 +27,13 @@ public class ProductDTO {
     
     @NotNull(message = "Product price is required")
     @Min(value = 0, message = "Price must be greater than or equal to 0")
-    private Double price;
+    @Digits(integer = 17, fraction = 2, message = "Price must have at most 2 decimal places")
+    private BigDecimal price;
     
     @NotNull(message = "Product stock is required")
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
     private Integer stock;
+    
+    // Optional on update: when present the update is rejected if the product changed since this version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.hackaton1.resu.dto;
+
+import java.time.Instant;
+
+/**
+ * Stock columns of a product projected straight from the database, used to refresh cached products.
+ */
+public record ProductStockRow(
+        Long id,
+        Integer stock,
+        Integer reserved,
+        Long version,
+        Instant updatedAt) {
+}
@@ -7,7 +7,7 @@ import org.springframework.context.ApplicationEvent;
 import java.util.List;
 
 /**
- * Event that is published when a new order is created.
+ * Event that is relayed from the outbox to the order listeners when a new order is created.
  * Contains information about the order such as:
  * - Order ID
  * - Customer email
@@ -0,0 +1,20 @@
+package com.hackaton1.resu.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when an order cannot be accepted because some of its products do not have enough stock,
+ * or when a product's stock would drop below the units reserved by accepted orders.
+ */
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds) {
+        super("Not enough stock available for products with IDs: " + productIds);
+        this.productIds = productIds;
+    }
+}
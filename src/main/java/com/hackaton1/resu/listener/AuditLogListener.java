@@ -1,43 +1,39 @@
 package com.hackaton1.resu.listener;
 
+import com.hackaton1.resu.audit.AuditRecord;
+import com.hackaton1.resu.audit.AuditSink;
+import com.hackaton1.resu.config.AsyncConfig;
 import com.hackaton1.resu.event.OrderCreatedEvent;
-import com.hackaton1.resu.model.Order;
-import com.hackaton1.resu.model.OrderItem;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Listener for OrderCreatedEvent that logs order details for auditing purposes.
+ * Listener for OrderCreatedEvent that records order details for auditing purposes.
+ * Each order becomes one compact record in the audit files instead of a series of log lines.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
-public class AuditLogListener {
+public class AuditLogListener implements OrderCreatedListener {
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final AuditSink auditSink;
 
-    @Async("taskExecutor")
-    @EventListener
-    public void handleOrderCreatedEvent(OrderCreatedEvent event) {
-        Order order = event.getOrder();
-        
-        log.info("=== AUDIT LOG: ORDER CREATED ===");
-        log.info("Timestamp: {}", order.getCreatedAt().format(DATE_FORMATTER));
-        log.info("Order ID: {}", order.getId());
-        log.info("Customer Email: {}", order.getCustomerEmail());
-        log.info("Items:");
-        
-        for (OrderItem item : order.getItems()) {
-            log.info("  - Product: {} (ID: {})", item.getProduct().getName(), item.getProduct().getId());
-            log.info("    Quantity: {}", item.getQuantity());
-            log.info("    Price per unit: ${}", item.getPrice());
-            log.info("    Subtotal: ${}", item.getSubtotal());
+    @Async(AsyncConfig.AUDIT_EXECUTOR)
+    @Override
+    public CompletableFuture<Void> handleOrderCreatedEvent(OrderCreatedEvent event) {
+        AuditRecord record = AuditRecord.of(event.getOrder());
+        if (!auditSink.append(record)) {
+            log.debug("Audit record of order {} not written", record.orderId());
         }
-        
-        log.info("Total Order Value: ${}", order.getTotal());
-        log.info("=== END AUDIT LOG ===");
+        return CompletableFuture.completedFuture(null);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isBestEffort() {
+        return true;
+    }
+}
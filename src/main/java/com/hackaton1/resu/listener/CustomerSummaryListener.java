@@ -0,0 +1,53 @@
+package com.hackaton1.resu.listener;
+
+import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
+import com.hackaton1.resu.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Listener for OrderCreatedEvent that adds the order to the customer's order summary.
+ * The update is skipped if the order was already counted by an earlier delivery.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerSummaryListener implements OrderCreatedListener {
+
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Async("taskExecutor")
+    @Override
+    public CompletableFuture<Void> handleOrderCreatedEvent(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+
+        try {
+            applyOrder(order);
+        } catch (DuplicateKeyException e) {
+            // Another order of the same customer created the summary first; it now exists, so update it
+            applyOrder(order);
+        }
+
+        log.debug("Customer summary updated for {} with order: {}", order.getCustomerEmail(), order.getId());
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void applyOrder(Order order) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderRepository.markSummaryApplied(order.getId()) == 0) {
+                return;
+            }
+            customerOrderSummaryRepository.addOrder(order.getCustomerEmail(), order.getTotalCents(), order.getCreatedAt());
+        });
+    }
+}
@@ -4,53 +4,61 @@ import com.hackaton1.resu.event.OrderCreatedEvent;
 import com.hackaton1.resu.model.Order;
 import com.hackaton1.resu.model.OrderItem;
 import com.hackaton1.resu.model.Product;
-import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.service.InventoryBatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Listener for OrderCreatedEvent that updates the inventory by reducing the stock
  * of products in the order.
+ * The stock was already reserved when the order was created; this turns the
+ * reservations into actual deductions. Updates are handed to the {@link InventoryBatcher},
+ * which coalesces the orders of a short window into one transaction on the inventory executor,
+ * and are skipped if the order's inventory was already applied by an earlier delivery.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
-public class InventoryUpdateListener {
+public class InventoryUpdateListener implements OrderCreatedListener {
 
-    private final ProductRepository productRepository;
+    private final InventoryBatcher inventoryBatcher;
 
-    @Async("taskExecutor")
-    @EventListener
-    @Transactional
-    public void handleOrderCreatedEvent(OrderCreatedEvent event) {
+    @Override
+    public CompletableFuture<Void> handleOrderCreatedEvent(OrderCreatedEvent event) {
         Order order = event.getOrder();
         
         log.info("Updating inventory for order: {}", order.getId());
-        
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            int quantity = item.getQuantity();
-            
-            log.info("Reducing stock for product: {} (ID: {}) by {} units", 
-                    product.getName(), product.getId(), quantity);
-            
-            try {
-                product.decreaseStock(quantity);
-                productRepository.save(product);
-                log.info("Stock updated successfully. New stock for product {}: {}", 
-                        product.getName(), product.getStock());
-            } catch (IllegalArgumentException e) {
-                log.error("Failed to update stock for product: {} (ID: {}). Reason: {}", 
-                        product.getName(), product.getId(), e.getMessage());
-                // In a real application, we might want to handle this error differently,
-                // such as canceling the order or notifying an administrator
+
+        return inventoryBatcher.submit(order).thenAccept(outcome -> {
+            if (outcome.alreadyApplied()) {
+                log.info("Inventory already updated for order: {}, skipping redelivered event", order.getId());
+                return;
             }
-        }
-        
-        log.info("Inventory update completed for order: {}", order.getId());
+
+            if (!outcome.failedProductIds().isEmpty()) {
+                for (OrderItem item : order.getItems()) {
+                    Product product = item.getProduct();
+                    if (outcome.failedProductIds().contains(product.getId())) {
+                        log.error("Failed to update stock for product: {} (ID: {}). Reason: Not enough reserved units or stock",
+                                product.getName(), product.getId());
+                    }
+                }
+                // Nothing of the order was deducted and its reservation stays held. In a real application,
+                // we might want to handle this error differently, such as canceling the order or notifying an administrator
+                log.error("Inventory of order {} was not updated", order.getId());
+                return;
+            }
+
+            for (OrderItem item : order.getItems()) {
+                Product product = item.getProduct();
+                log.info("Reduced stock for product: {} (ID: {}) by {} units",
+                        product.getName(), product.getId(), item.getQuantity());
+            }
+
+            log.info("Inventory update completed for order: {}", order.getId());
+        });
     }
-}
\ No newline at end of file
+}
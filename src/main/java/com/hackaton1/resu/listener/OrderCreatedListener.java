@@ -0,0 +1,30 @@
+package com.hackaton1.resu.listener;
+
+import com.hackaton1.resu.event.OrderCreatedEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler that the outbox relay dispatches every OrderCreatedEvent to.
+ * Events are delivered at least once, so handlers must tolerate redelivery.
+ */
+public interface OrderCreatedListener {
+
+    /**
+     * Handle an order creation.
+     *
+     * @param event the event
+     * @return a future that completes once the event has been fully handled
+     */
+    CompletableFuture<Void> handleOrderCreatedEvent(OrderCreatedEvent event);
+
+    /**
+     * Whether the handler may be skipped when its executor is saturated.
+     * Best-effort handlers are shed under load instead of holding the event back in the outbox.
+     *
+     * @return true if the handler is best effort
+     */
+    default boolean isBestEffort() {
+        return false;
+    }
+}
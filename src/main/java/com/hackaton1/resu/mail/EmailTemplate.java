@@ -0,0 +1,129 @@
+package com.hackaton1.resu.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-text template compiled once into literal, variable and section segments.
+ * <p>
+ * {@code {{name}}} is replaced by the value of {@code name} in the model, and
+ * {@code {{#name}}...{{/name}}} repeats its content for every map in the list {@code name}.
+ * Rendering walks the segments into a per-thread buffer that is reused across renders.
+ */
+public final class EmailTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final List<Segment> segments;
+
+    private EmailTemplate(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param source the template text
+     * @return the compiled template
+     * @throws IllegalArgumentException if a tag is not closed or a section is not ended
+     */
+    public static EmailTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int end = parse(source, 0, null, segments);
+        if (end != source.length()) {
+            throw new IllegalArgumentException("Unexpected section end at " + end);
+        }
+        return new EmailTemplate(List.copyOf(segments));
+    }
+
+    private static int parse(String source, int start, String section, List<Segment> segments) {
+        int position = start;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                segments.add(new Literal(source.substring(position)));
+                position = source.length();
+                break;
+            }
+            if (open > position) {
+                segments.add(new Literal(source.substring(position, open)));
+            }
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at " + open);
+            }
+            String tag = source.substring(open + 2, close).trim();
+            position = close + 2;
+            if (tag.startsWith("#")) {
+                List<Segment> body = new ArrayList<>();
+                String name = tag.substring(1);
+                position = parse(source, position, name, body);
+                segments.add(new Section(name, List.copyOf(body)));
+            } else if (tag.startsWith("/")) {
+                if (!tag.substring(1).equals(section)) {
+                    throw new IllegalArgumentException("Unexpected section end " + tag + " at " + open);
+                }
+                return position;
+            } else {
+                segments.add(new Variable(tag));
+            }
+        }
+        if (section != null) {
+            throw new IllegalArgumentException("Section " + section + " is not ended");
+        }
+        return position;
+    }
+
+    /**
+     * Render the template.
+     *
+     * @param model the values of the variables; sections take a list of maps
+     * @return the rendered text
+     */
+    public String render(Map<String, ?> model) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            render(segments, model, buffer);
+            return buffer.toString();
+        } finally {
+            // Do not keep an unusually large buffer alive for the lifetime of the thread
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static void render(List<Segment> segments, Map<String, ?> model, StringBuilder out) {
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                out.append(literal.text());
+            } else if (segment instanceof Variable variable) {
+                Object value = model.get(variable.name());
+                if (value != null) {
+                    out.append(value);
+                }
+            } else if (segment instanceof Section section && model.get(section.name()) instanceof List<?> rows) {
+                for (Object row : rows) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, ?> rowModel = (Map<String, ?>) row;
+                    render(section.body(), rowModel, out);
+                }
+            }
+        }
+    }
+
+    private sealed interface Segment permits Literal, Variable, Section {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Variable(String name) implements Segment {
+    }
+
+    private record Section(String name, List<Segment> body) implements Segment {
+    }
+}
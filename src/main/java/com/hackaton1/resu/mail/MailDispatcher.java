@@ -0,0 +1,226 @@
+package com.hackaton1.resu.mail;
+
+import com.hackaton1.resu.config.MailQueueProperties;
+import com.hackaton1.resu.model.OutboundEmail;
+import com.hackaton1.resu.repository.OutboundEmailRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background dispatcher that sends the queued emails over SMTP.
+ * Due emails are sent in batches over one connection, at most at the configured rate.
+ * A failed email is retried with exponential backoff and moved to the dead letters after the
+ * maximum number of attempts. The dispatcher runs on its own thread, so a slow or unreachable
+ * mail server holds neither the listener executors nor the scheduler of the outbox relay.
+ */
+@Service
+@Slf4j
+public class MailDispatcher {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final MailQueueProperties properties;
+    private final RateLimiter rateLimiter;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "MailDispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public MailDispatcher(OutboundEmailRepository outboundEmailRepository,
+                          JavaMailSender mailSender,
+                          MailQueueProperties properties) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.rateLimiter = new RateLimiter(properties.getRatePerSecond(), System::nanoTime);
+    }
+
+    @PostConstruct
+    void start() {
+        long poll = properties.getPollInterval().toNanos();
+        scheduler.scheduleWithFixedDelay(this::runSafely, poll, poll, TimeUnit.NANOSECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgeSentEmails,
+                PURGE_INTERVAL.toNanos(), PURGE_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.error("Email dispatch failed", e);
+        }
+    }
+
+    /**
+     * Send due emails until none are left or the rate limit is reached.
+     */
+    public void dispatchPending() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == properties.getBatchSize());
+    }
+
+    /**
+     * Send one batch of due emails.
+     *
+     * @return the number of emails attempted
+     */
+    int dispatchBatch() {
+        int permits = rateLimiter.tryAcquire(properties.getBatchSize());
+        if (permits == 0) {
+            return 0;
+        }
+        List<OutboundEmail> due = outboundEmailRepository.findDue(LocalDateTime.now(), PageRequest.of(0, permits));
+        rateLimiter.release(permits - due.size());
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, OutboundEmail> messages = new IdentityHashMap<>();
+        Map<OutboundEmail, Exception> failures = new IdentityHashMap<>();
+        for (OutboundEmail email : due) {
+            try {
+                messages.put(toMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                // Lists the messages that failed; if the connection failed, it lists all of them
+                e.getFailedMessages().forEach((message, cause) -> failures.put(messages.get(message), cause));
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        for (OutboundEmail email : due) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboundEmailRepository.markSent(sentIds, now);
+            sent.add(sentIds.size());
+        }
+        if (!failures.isEmpty()) {
+            failures.forEach((email, cause) -> recordFailure(email, cause, now));
+            outboundEmailRepository.saveAll(failures.keySet());
+            failed.add(failures.size());
+            log.warn("Failed to send {} of {} emails", failures.size(), due.size());
+        }
+        return due.size();
+    }
+
+    private MimeMessage toMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(properties.getFrom());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), false);
+        return message;
+    }
+
+    private void recordFailure(OutboundEmail email, Exception cause, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String error = String.valueOf(cause.getMessage());
+        email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            email.setStatus(OutboundEmail.Status.DEAD_LETTER);
+            deadLettered.increment();
+            log.error("Email {} to {} moved to dead letters after {} attempts: {}", email.getId(), email.getRecipient(), attempts, error);
+        } else {
+            email.setNextAttemptAt(now.plus(backoff(attempts)));
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    /**
+     * Purge emails that were sent longer ago than the retention period.
+     */
+    void purgeSentEmails() {
+        try {
+            int purged = outboundEmailRepository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+            if (purged > 0) {
+                log.info("Purged {} sent emails", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Purging sent emails failed", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Get the number of failed send attempts, including retries.
+     *
+     * @return the failed attempt count
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Get the number of emails moved to the dead letters.
+     *
+     * @return the dead-lettered email count
+     */
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackaton1.resu.mail;
+
+import com.hackaton1.resu.model.OutboundEmail;
+import com.hackaton1.resu.repository.OutboundEmailRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persistent queue of outbound emails, drained by the {@link MailDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MailQueue {
+
+    private final OutboundEmailRepository outboundEmailRepository;
+
+    /**
+     * Queue an email about an order, unless the same email was already queued for it.
+     *
+     * @param template the template the email was rendered from
+     * @param orderId the order ID
+     * @param recipient the recipient address
+     * @param email the rendered email
+     * @return true if the email was queued, false if it already was
+     */
+    public boolean enqueue(String template, Long orderId, String recipient, OrderEmailRenderer.RenderedEmail email) {
+        if (outboundEmailRepository.existsByOrderIdAndTemplate(orderId, template)) {
+            return false;
+        }
+        try {
+            outboundEmailRepository.save(OutboundEmail.builder()
+                    .template(template)
+                    .orderId(orderId)
+                    .recipient(recipient)
+                    .subject(email.subject())
+                    .body(email.body())
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Queued concurrently by a redelivery of the same event
+            log.debug("Email {} for order {} already queued", template, orderId);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hackaton1.resu.mail;
+
+import com.hackaton1.resu.model.Money;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the order confirmation email from a template compiled once at startup.
+ * The first line of the template file is the subject, the rest is the body.
+ */
+@Component
+public class OrderEmailRenderer {
+
+    public static final String ORDER_CONFIRMATION = "order-confirmation";
+
+    private final EmailTemplate subject;
+    private final EmailTemplate body;
+
+    public OrderEmailRenderer() {
+        String source = load("templates/email/" + ORDER_CONFIRMATION + ".txt");
+        int newline = source.indexOf('\n');
+        this.subject = EmailTemplate.compile(source.substring(0, newline));
+        this.body = EmailTemplate.compile(source.substring(newline + 1));
+    }
+
+    /**
+     * Render the order confirmation of an order.
+     *
+     * @param order the order, with its items and products loaded
+     * @return the subject and body of the email
+     */
+    public RenderedEmail render(Order order) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("orderId", order.getId());
+        model.put("createdAt", order.getCreatedAt());
+        model.put("total", Money.toDecimal(order.getTotalCents()));
+        List<Map<String, Object>> items = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            items.add(Map.of(
+                    "quantity", item.getQuantity(),
+                    "productName", item.getProductName() != null ? item.getProductName() : item.getProduct().getName(),
+                    "price", Money.toDecimal(item.getPriceCents()),
+                    "subtotal", Money.toDecimal(item.getSubtotalCents())));
+        }
+        model.put("items", items);
+        return new RenderedEmail(subject.render(model), body.render(model));
+    }
+
+    private static String load(String path) {
+        try {
+            return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email template " + path, e);
+        }
+    }
+
+    /**
+     * A rendered email.
+     *
+     * @param subject the subject
+     * @param body the plain-text body
+     */
+    public record RenderedEmail(String subject, String body) {
+    }
+}
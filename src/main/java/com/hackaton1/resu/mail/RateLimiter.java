@@ -0,0 +1,49 @@
+package com.hackaton1.resu.mail;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that allows a steady number of permits per second and bursts of up to one second's worth.
+ */
+final class RateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double available;
+    private long refilledAt;
+
+    RateLimiter(int permitsPerSecond, LongSupplier nanoClock) {
+        this.permitsPerNano = permitsPerSecond / NANOS_PER_SECOND;
+        this.capacity = permitsPerSecond;
+        this.nanoClock = nanoClock;
+        this.available = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take up to the given number of permits without waiting.
+     *
+     * @param max the number of permits wanted
+     * @return the number of permits granted, possibly 0
+     */
+    synchronized int tryAcquire(int max) {
+        long now = nanoClock.getAsLong();
+        available = Math.min(capacity, available + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        int granted = (int) Math.min(max, Math.floor(available));
+        available -= granted;
+        return granted;
+    }
+
+    /**
+     * Give back permits that were acquired but not used.
+     *
+     * @param permits the number of unused permits
+     */
+    synchronized void release(int permits) {
+        available = Math.min(capacity, available + permits);
+    }
+}
@@ -3,6 +3,7 @@ package com.hackaton1.resu.mapper;
 import com.hackaton1.resu.dto.CreateOrderRequest;
 import com.hackaton1.resu.dto.OrderDTO;
 import com.hackaton1.resu.dto.OrderItemDTO;
+import com.hackaton1.resu.model.Money;
 import com.hackaton1.resu.model.Order;
 import com.hackaton1.resu.model.OrderItem;
 import com.hackaton1.resu.model.Product;
@@ -10,8 +11,9 @@ import com.hackaton1.resu.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -43,7 +45,8 @@ public class OrderMapper {
                 .customerEmail(order.getCustomerEmail())
                 .items(itemDTOs)
                 .createdAt(order.getCreatedAt())
-                .total(order.getTotal())
+                .total(Money.toDecimal(order.getTotalCents()))
+                .itemCount(order.getItemCount())
                 .build();
     }
 
@@ -61,10 +64,10 @@ public class OrderMapper {
         return OrderItemDTO.builder()
                 .id(orderItem.getId())
                 .productId(orderItem.getProduct().getId())
-                .productName(orderItem.getProduct().getName())
+                .productName(orderItem.getProductName())
                 .quantity(orderItem.getQuantity())
-                .price(orderItem.getPrice())
-                .subtotal(orderItem.getSubtotal())
+                .price(Money.toDecimal(orderItem.getPriceCents()))
+                .subtotal(Money.toDecimal(orderItem.getSubtotalCents()))
                 .build();
     }
 
@@ -79,24 +82,51 @@ public class OrderMapper {
             return null;
         }
 
+        // Resolve all products with one query instead of one per line item
+        Map<Long, Product> products = productService.getProductsByIds(request.getItems().stream()
+                .map(CreateOrderRequest.OrderItemRequest::getProductId)
+                .collect(Collectors.toSet()));
+        return toEntity(request, products);
+    }
+
+    /**
+     * Convert CreateOrderRequest to Order entity using products that were already loaded.
+     *
+     * @param request the create order request
+     * @param products the loaded products, keyed by ID; may contain products of other orders
+     * @return the order entity
+     * @throws IllegalArgumentException if a product of the request is not among the loaded products
+     */
+    public Order toEntity(CreateOrderRequest request, Map<Long, Product> products) {
         Order order = new Order();
         order.setCustomerEmail(request.getCustomerEmail());
 
-        List<OrderItem> items = new ArrayList<>();
+        // Merge lines that reference the same product so each product appears once
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productService.getProductById(itemRequest.getProductId())
-                    .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + itemRequest.getProductId()));
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+
+        List<Long> missing = quantities.keySet().stream()
+                .filter(productId -> !products.containsKey(productId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Products not found with IDs: " + missing);
+        }
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
 
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
-                    .quantity(itemRequest.getQuantity())
-                    .price(product.getPrice())
+                    .productName(product.getName())
+                    .quantity(entry.getValue())
+                    .priceCents(product.getPriceCents())
                     .build();
 
-            items.add(orderItem);
+            order.addItem(orderItem);
         }
 
-        order.setItems(items);
         return order;
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.hackaton1.resu.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the stages an order passes through, from the REST call to the last listener.
+ * Latencies are timers with percentile histograms (see management.metrics.distribution in the application
+ * properties), so a spike can be traced to the stage it comes from: mapping, the database transaction,
+ * the outbox relay, a listener executor or the inventory flush.
+ */
+@Component
+public class OrderPipelineMetrics {
+
+    static final String ORDER_STAGE = "resu.order.stage";
+    static final String STOCK_FAILURES = "resu.order.stock.failures";
+    static final String OUTBOX_LAG = "resu.outbox.lag";
+    static final String OUTBOX_DISPATCH = "resu.outbox.dispatch";
+    static final String LISTENER_LATENCY = "resu.listener.latency";
+    static final String INVENTORY_FLUSH = "resu.inventory.flush";
+
+    private final MeterRegistry registry;
+    private final Timer mapping;
+    private final Timer save;
+    private final Timer outboxLag;
+    private final Timer outboxDispatch;
+    private final Timer inventoryFlush;
+    private final Counter createStockFailures;
+    private final Counter batchStockFailures;
+    private final Counter inventoryStockFailures;
+
+    public OrderPipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.mapping = Timer.builder(ORDER_STAGE)
+                .description("Time to resolve the products of an order request and build the order")
+                .tag("stage", "map")
+                .register(registry);
+        this.save = Timer.builder(ORDER_STAGE)
+                .description("Time of the order transaction: stock reservation, order insert and outbox entry, including commit")
+                .tag("stage", "save")
+                .register(registry);
+        this.outboxLag = Timer.builder(OUTBOX_LAG)
+                .description("Time from recording an event in the outbox until the relay dispatches it")
+                .register(registry);
+        this.outboxDispatch = Timer.builder(OUTBOX_DISPATCH)
+                .description("Time for the relay to dispatch a batch of events and wait for all listeners")
+                .register(registry);
+        this.inventoryFlush = Timer.builder(INVENTORY_FLUSH)
+                .description("Time to apply one coalesced batch of inventory updates, including retries")
+                .register(registry);
+        this.createStockFailures = stockFailures("create");
+        this.batchStockFailures = stockFailures("batch");
+        this.inventoryStockFailures = stockFailures("inventory");
+    }
+
+    private Counter stockFailures(String stage) {
+        return Counter.builder(STOCK_FAILURES)
+                .description("Orders that could not be covered by the available or reserved stock")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    public Timer getMappingTimer() {
+        return mapping;
+    }
+
+    public Timer getSaveTimer() {
+        return save;
+    }
+
+    public Timer getOutboxDispatchTimer() {
+        return outboxDispatch;
+    }
+
+    public Timer getInventoryFlushTimer() {
+        return inventoryFlush;
+    }
+
+    /**
+     * Record how long an event waited in the outbox before being dispatched.
+     *
+     * @param createdAt when the event was recorded
+     */
+    public void recordOutboxLag(LocalDateTime createdAt) {
+        outboxLag.record(Duration.between(createdAt, LocalDateTime.now()));
+    }
+
+    /**
+     * Record the time from dispatching an event to a listener until the listener completed.
+     * This includes the wait in the listener's executor queue.
+     *
+     * @param listener the listener name
+     * @param nanos the elapsed time in nanoseconds
+     * @param success whether the listener completed normally
+     */
+    public void recordListenerLatency(String listener, long nanos, boolean success) {
+        // The registry returns the existing timer for the same name and tags
+        Timer.builder(LISTENER_LATENCY)
+                .description("Time from dispatching an event to a listener until the listener completed")
+                .tag("listener", listener)
+                .tag("outcome", success ? "success" : "failure")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count an order rejected at creation because its products did not have enough available stock.
+     */
+    public void countCreateStockFailure() {
+        createStockFailures.increment();
+    }
+
+    /**
+     * Count orders of a batch rejected because their products did not have enough available stock.
+     *
+     * @param orders the number of rejected orders
+     */
+    public void countBatchStockFailures(int orders) {
+        batchStockFailures.increment(orders);
+    }
+
+    /**
+     * Count orders whose reserved stock could not cover the inventory deduction.
+     *
+     * @param orders the number of orders
+     */
+    public void countInventoryStockFailures(int orders) {
+        inventoryStockFailures.increment(orders);
+    }
+}
@@ -0,0 +1,39 @@
+package com.hackaton1.resu.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-customer order aggregate, updated incrementally for every created order so that
+ * account pages never have to scan the orders table.
+ */
+@Entity
+@Table(name = "customer_order_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerOrderSummary {
+
+    @Id
+    private String customerEmail;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    // Lifetime total in minor units, stored as an exact decimal
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "lifetime_total", precision = 19, scale = 2, nullable = false)
+    private long lifetimeTotalCents;
+
+    private LocalDateTime lastOrderAt;
+}
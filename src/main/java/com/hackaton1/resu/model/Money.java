@@ -0,0 +1,53 @@
+package com.hackaton1.resu.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers.
+ * Amounts are held as {@code long} minor units (cents) inside the model, so totals are exact and
+ * computed without allocation; they become {@link BigDecimal} only in the database and the API.
+ */
+public final class Money {
+
+    /**
+     * Number of decimal places of the minor unit.
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Convert a decimal amount to minor units, rounding half up to the nearest cent.
+     *
+     * @param amount the decimal amount
+     * @return the amount in minor units
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert minor units to a decimal amount with two decimal places.
+     *
+     * @param minorUnits the amount in minor units
+     * @return the decimal amount
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Multiply a unit price by a quantity.
+     *
+     * @param minorUnits the unit price in minor units
+     * @param quantity the quantity
+     * @return the product in minor units
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long times(long minorUnits, int quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackaton1.resu.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps amounts held in minor units to {@code NUMERIC(19, 2)} columns, so the database stores exact decimals.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : Money.toDecimal(minorUnits);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.toMinorUnits(amount);
+    }
+}
@@ -8,46 +8,94 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders") // "order" is a reserved keyword in SQL
+@Table(name = "orders", // "order" is a reserved keyword in SQL
+        indexes = @Index(name = "idx_orders_customer_email", columnList = "customer_email, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
     
+    // Pooled sequence: IDs are allocated 50 at a time, so inserts need no round trip per row and can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Customer email is required")
     @Email(message = "Invalid email format")
     private String customerEmail;
     
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_id")
+    // Owned by OrderItem.order, so the foreign key is written by the item INSERT instead of a later UPDATE
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @NotEmpty(message = "Order must contain at least one item")
+    @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
     
     private LocalDateTime createdAt;
     
+    // Computed once from the items when the order is created, so list views, reports and sorting
+    // by total can read the order row alone without loading order_item
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "total", precision = 19, scale = 2)
+    private Long totalCents;
+    
+    // Number of units across all items
+    private Integer itemCount;
+    
+    // Set once the reserved stock of the order has been deducted, so a redelivered event is ignored
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean inventoryApplied = false;
+    
+    // Set once the order has been added to the customer's summary, so a redelivered event is ignored
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean summaryApplied = false;
+    
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
+        // Items may have been attached through the builder or setItems without the back-reference
+        items.forEach(item -> item.setOrder(this));
+        totalCents = computeTotalCents();
+        itemCount = computeItemCount();
+    }
+    
+    public long getTotalCents() {
+        // Derived from the items until the order has been persisted
+        return totalCents != null ? totalCents : computeTotalCents();
+    }
+    
+    public Integer getItemCount() {
+        return itemCount != null ? itemCount : computeItemCount();
+    }
+    
+    private long computeTotalCents() {
+        long sum = 0;
+        for (OrderItem item : items) {
+            sum = Math.addExact(sum, item.getSubtotalCents());
+        }
+        return sum;
     }
     
-    public Double getTotal() {
+    private int computeItemCount() {
         return items.stream()
-                .mapToDouble(OrderItem::getSubtotal)
+                .mapToInt(OrderItem::getQuantity)
                 .sum();
     }
     
     public void addItem(OrderItem item) {
+        item.setOrder(this);
         items.add(item);
     }
 }
\ No newline at end of file
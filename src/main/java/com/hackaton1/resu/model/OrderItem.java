@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -16,22 +18,42 @@ import lombok.NoArgsConstructor;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Order order;
+    
     @ManyToOne
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
     
+    // Name of the product at the time of the order, so renaming the product does not change existing orders
+    @Column(name = "product_name")
+    private String productName;
+    
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
     
-    @NotNull(message = "Price is required")
+    // Unit price in minor units at the time of the order, stored as an exact decimal
     @Min(value = 0, message = "Price must be greater than or equal to 0")
-    private Double price;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "price", precision = 19, scale = 2, nullable = false)
+    private long priceCents;
+    
+    @PrePersist
+    public void prePersist() {
+        if (productName == null && product != null) {
+            productName = product.getName();
+        }
+    }
     
-    public Double getSubtotal() {
-        return price * quantity;
+    public long getSubtotalCents() {
+        return Money.times(priceCents, quantity);
     }
 }
\ No newline at end of file
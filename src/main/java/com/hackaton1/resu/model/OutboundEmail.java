@@ -0,0 +1,79 @@
+package com.hackaton1.resu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email waiting to be sent, or already sent or given up on.
+ * At most one email per template is queued for an order, so a redelivered event does not send it twice.
+ */
+@Entity
+@Table(name = "outbound_email",
+        indexes = @Index(name = "idx_outbound_email_due", columnList = "status, next_attempt_at"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbound_email_order_template", columnNames = {"order_id", "template"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboundEmail {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        // Failed more often than allowed; kept for inspection and manual resending
+        DEAD_LETTER
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbound_email_seq")
+    @SequenceGenerator(name = "outbound_email_seq", sequenceName = "outbound_email_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String template;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 20_000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // The email is not sent before this time; pushed back after every failed attempt
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hackaton1.resu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event recorded in the same transaction as the change it describes and relayed to the listeners afterwards.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_pending", columnList = "processed_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    public static final String ORDER_CREATED = "OrderCreated";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    // ID of the entity the event is about, e.g. the order ID
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    private LocalDateTime createdAt;
+
+    // Null until every listener has handled the event
+    private LocalDateTime processedAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Set once the event failed on every attempt; it is then kept for inspection but no longer relayed
+    private LocalDateTime deadLetteredAt;
+
+    // W3C traceparent of the span that recorded the event, so the relay continues the same trace
+    @Column(length = 55)
+    private String traceParent;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,9 +1,13 @@
 package com.hackaton1.resu.model;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,6 +15,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Data
@@ -20,20 +28,43 @@ import lombok.NoArgsConstructor;
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Product name is required")
     private String name;
     
-    @NotNull(message = "Product price is required")
+    // Price in minor units, stored as an exact decimal
     @Min(value = 0, message = "Price must be greater than or equal to 0")
-    private Double price;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "price", precision = 19, scale = 2, nullable = false)
+    private long priceCents;
     
     @NotNull(message = "Product stock is required")
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
     private Integer stock;
     
+    // Optimistic lock: concurrent writers of the same product detect each other instead of overwriting
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // Units held by accepted orders that the inventory listener has not deducted from stock yet
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer reserved = 0;
+    
+    // Time of the last change, served as Last-Modified; the stock updates in ProductRepositoryCustomImpl set it too
+    @UpdateTimestamp
+    private Instant updatedAt;
+    
+    public int getAvailableStock() {
+        return stock - reserved;
+    }
+    
     public void decreaseStock(int quantity) {
         if (this.stock >= quantity) {
             this.stock -= quantity;
@@ -0,0 +1,10 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.CustomerOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerOrderSummaryRepository
+        extends JpaRepository<CustomerOrderSummary, String>, CustomerOrderSummaryRepositoryCustom {
+}
@@ -0,0 +1,40 @@
+package com.hackaton1.resu.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom aggregate operations for {@link CustomerOrderSummaryRepository}.
+ */
+public interface CustomerOrderSummaryRepositoryCustom {
+
+    /**
+     * Atomically add an order to the summary of its customer, creating the summary if needed.
+     * Must run inside a transaction.
+     *
+     * @param customerEmail the customer email
+     * @param totalCents the order total in minor units
+     * @param createdAt the order creation date
+     * @throws org.springframework.dao.DuplicateKeyException if another transaction created the summary concurrently
+     */
+    void addOrder(String customerEmail, long totalCents, LocalDateTime createdAt);
+
+    /**
+     * Atomically remove a deleted order from the summary of its customer, dropping the summary once it is empty.
+     * The last order date is recomputed from the remaining counted orders, so the order must be deleted first.
+     * Must run inside a transaction.
+     *
+     * @param customerEmail the customer email
+     * @param totalCents the order total in minor units
+     */
+    void removeOrder(String customerEmail, long totalCents);
+
+    /**
+     * Add every order not yet counted to the summary of its customer and mark it counted, in one transaction.
+     * Used once at startup for orders created before the summaries were maintained; the order totals must be
+     * stored already.
+     *
+     * @return the number of orders added
+     * @throws org.springframework.dao.DuplicateKeyException if another transaction created a summary concurrently
+     */
+    int backfillUnappliedOrders();
+}
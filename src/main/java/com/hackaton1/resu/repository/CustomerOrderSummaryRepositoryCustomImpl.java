@@ -0,0 +1,93 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link CustomerOrderSummaryRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class CustomerOrderSummaryRepositoryCustomImpl implements CustomerOrderSummaryRepositoryCustom {
+
+    private static final String ADD_ORDERS_SQL =
+            "UPDATE customer_order_summary SET order_count = order_count + ?, lifetime_total = lifetime_total + ?, "
+                    + "last_order_at = GREATEST(last_order_at, ?) WHERE customer_email = ?";
+
+    private static final String INSERT_SUMMARY_SQL =
+            "INSERT INTO customer_order_summary (customer_email, order_count, lifetime_total, last_order_at) VALUES (?, ?, ?, ?)";
+
+    private static final String REMOVE_ORDER_SQL =
+            "UPDATE customer_order_summary SET order_count = order_count - 1, lifetime_total = lifetime_total - ?, "
+                    + "last_order_at = (SELECT MAX(o.created_at) FROM orders o WHERE o.customer_email = ? AND o.summary_applied = true) "
+                    + "WHERE customer_email = ?";
+
+    private static final String DELETE_EMPTY_SUMMARY_SQL =
+            "DELETE FROM customer_order_summary WHERE customer_email = ? AND order_count <= 0";
+
+    private static final String LOCK_UNAPPLIED_ORDERS_SQL =
+            "SELECT id, customer_email, total, created_at FROM orders WHERE summary_applied = false ORDER BY id FOR UPDATE";
+
+    private static final String MARK_SUMMARY_APPLIED_SQL =
+            "UPDATE orders SET summary_applied = true WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addOrder(String customerEmail, long totalCents, LocalDateTime createdAt) {
+        addOrders(customerEmail, 1, Money.toDecimal(totalCents), Timestamp.valueOf(createdAt));
+    }
+
+    @Override
+    public void removeOrder(String customerEmail, long totalCents) {
+        jdbcTemplate.update(REMOVE_ORDER_SQL, Money.toDecimal(totalCents), customerEmail, customerEmail);
+        jdbcTemplate.update(DELETE_EMPTY_SUMMARY_SQL, customerEmail);
+    }
+
+    @Override
+    @Transactional
+    public int backfillUnappliedOrders() {
+        // The lock keeps the summary listener, which claims an order by the same flag, from counting them twice
+        List<Object[]> ids = new ArrayList<>();
+        Map<String, Aggregate> aggregates = new LinkedHashMap<>();
+        jdbcTemplate.query(LOCK_UNAPPLIED_ORDERS_SQL, rs -> {
+            ids.add(new Object[]{rs.getLong("id")});
+            aggregates.computeIfAbsent(rs.getString("customer_email"), email -> new Aggregate())
+                    .add(rs.getBigDecimal("total"), rs.getTimestamp("created_at"));
+        });
+        aggregates.forEach((email, aggregate) -> addOrders(email, aggregate.count, aggregate.total, aggregate.lastOrderAt));
+        jdbcTemplate.batchUpdate(MARK_SUMMARY_APPLIED_SQL, ids);
+        return ids.size();
+    }
+
+    private void addOrders(String customerEmail, int count, BigDecimal total, Timestamp lastOrderAt) {
+        if (jdbcTemplate.update(ADD_ORDERS_SQL, count, total, lastOrderAt, customerEmail) == 0) {
+            jdbcTemplate.update(INSERT_SUMMARY_SQL, customerEmail, count, total, lastOrderAt);
+        }
+    }
+
+    private static final class Aggregate {
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+        private Timestamp lastOrderAt;
+
+        private void add(BigDecimal orderTotal, Timestamp createdAt) {
+            count++;
+            if (orderTotal != null) {
+                total = total.add(orderTotal);
+            }
+            if (lastOrderAt == null || createdAt.after(lastOrderAt)) {
+                lastOrderAt = createdAt;
+            }
+        }
+    }
+}
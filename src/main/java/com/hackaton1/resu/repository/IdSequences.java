@@ -0,0 +1,60 @@
+package com.hackaton1.resu.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the sequences behind the entity IDs ahead of the rows already stored.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdSequences {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Advance every entity ID sequence that would hand out an ID already taken, such as a sequence created for a
+     * table whose rows were inserted before the entity used it.
+     *
+     * @return the names of the sequences that were advanced
+     */
+    public List<String> advancePastExistingIds() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        List<String> advanced = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            if (!(descriptor.getGenerator() instanceof SequenceStyleGenerator generator)
+                    || !(descriptor instanceof AbstractEntityPersister persister)) {
+                return;
+            }
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + persister.getIdentifierColumnNames()[0]
+                    + ") FROM " + persister.getTableName(), Long.class);
+            if (maxId == null) {
+                return;
+            }
+            DatabaseStructure structure = generator.getDatabaseStructure();
+            String sequence = structure.getPhysicalName().render();
+            int increment = structure.getIncrementSize();
+            // The pooled optimizer hands out the block of IDs ending at the value it reads, so that whole block
+            // has to lie above the existing IDs; reading the value costs one block, once per startup
+            Long next = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+            if (next == null || next - increment < maxId) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + increment));
+                advanced.add(sequence);
+            }
+        });
+        return advanced;
+    }
+}
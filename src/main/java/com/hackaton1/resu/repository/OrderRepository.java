@@ -1,15 +1,80 @@
 package com.hackaton1.resu.repository;
 
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.dto.OrderItemRow;
 import com.hackaton1.resu.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     // Spring Data JPA will automatically implement basic CRUD operations
-    
-    // Custom query method to find orders by customer email
-    List<Order> findByCustomerEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset pagination: IDs of the next page, fetched without joins so the limit applies in SQL
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Keyset pagination within the orders of one customer, served by idx_orders_customer_email
+    @Query("SELECT o.id FROM Order o WHERE o.customerEmail = :email AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByCustomerEmailAfter(@Param("email") String email, @Param("afterId") Long afterId, Limit limit);
+
+    // Read-only projections that bypass entity hydration; order totals are read from the stored columns
+    @Query("SELECT new com.hackaton1.resu.dto.OrderDTO(o.id, o.customerEmail, o.createdAt, o.totalCents, o.itemCount) "
+            + "FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<OrderDTO> findOrderDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.hackaton1.resu.dto.OrderItemRow(o.id, i.id, i.product.id, i.productName, i.quantity, i.priceCents) "
+            + "FROM Order o JOIN o.items i WHERE o.id IN :ids ORDER BY o.id, i.id")
+    List<OrderItemRow> findOrderItemRowsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cursor over all orders for streaming; rows are fetched from the database in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAll();
+
+    // Orders with their items and products loaded in one query, usable outside the persistence context
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Locks the given orders whose inventory was not yet applied, so one flush can claim them together
+    @Query(value = "SELECT id FROM orders WHERE id IN (:ids) AND inventory_applied = false FOR UPDATE", nativeQuery = true)
+    List<Long> lockInventoryPendingIds(@Param("ids") Collection<Long> ids);
+
+    // Marks the inventory deduction of orders locked by lockInventoryPendingIds as applied
+    @Modifying
+    @Query("UPDATE Order o SET o.inventoryApplied = true WHERE o.id IN :ids")
+    int markInventoryApplied(@Param("ids") Collection<Long> ids);
+
+    // Claims the customer summary update of an order; returns 0 if it was already applied
+    @Modifying
+    @Query("UPDATE Order o SET o.summaryApplied = true WHERE o.id = :id AND o.summaryApplied = false")
+    int markSummaryApplied(@Param("id") Long id);
+
+    // Fills in the stored totals of orders created before they were persisted
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE orders o SET "
+            + "total = COALESCE((SELECT SUM(i.price * i.quantity) FROM order_item i WHERE i.order_id = o.id), 0), "
+            + "item_count = COALESCE((SELECT SUM(i.quantity) FROM order_item i WHERE i.order_id = o.id), 0) "
+            + "WHERE o.total IS NULL OR o.item_count IS NULL", nativeQuery = true)
+    int backfillTotals();
+
+    // Fills in the product names of order items created before the name was stored with the item
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE order_item SET product_name = (SELECT p.name FROM product p WHERE p.id = order_item.product_id) "
+            + "WHERE product_name IS NULL", nativeQuery = true)
+    int backfillItemProductNames();
+}
@@ -0,0 +1,38 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    boolean existsByOrderIdAndTemplate(Long orderId, String template);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    // Pending emails whose next attempt is due, oldest first; served by idx_outbound_email_due
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status = com.hackaton1.resu.model.OutboundEmail.Status.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<OutboundEmail> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.hackaton1.resu.model.OutboundEmail.Status.SENT, e.sentAt = :sentAt, "
+            + "e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = com.hackaton1.resu.model.OutboundEmail.Status.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,47 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest events that still have to be relayed, skipping the ones that failed too often
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.deadLetteredAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.deadLetteredAt = :deadLetteredAt WHERE e.id IN :ids")
+    int markDeadLettered(@Param("ids") Collection<Long> ids, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.aggregateId = :aggregateId AND e.processedAt IS NULL")
+    int deletePendingByAggregateId(@Param("aggregateId") Long aggregateId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
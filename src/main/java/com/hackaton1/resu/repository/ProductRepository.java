@@ -1,11 +1,44 @@
 package com.hackaton1.resu.repository;
 
+import com.hackaton1.resu.dto.CatalogVersion;
+import com.hackaton1.resu.dto.ProductStockRow;
 import com.hackaton1.resu.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     // Spring Data JPA will automatically implement basic CRUD operations
-    // We can add custom query methods here if needed
-}
\ No newline at end of file
+
+    // Bulk lookup used when resolving all the products of an order in a single round trip
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination over the product ID
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Cursor over all products for streaming; rows are fetched from the database in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // Only the frequently changing columns, for refreshing cached products whose stock is stale
+    @Query("SELECT new com.hackaton1.resu.dto.ProductStockRow(p.id, p.stock, p.reserved, p.version, p.updatedAt) "
+            + "FROM Product p WHERE p.id IN :ids")
+    List<ProductStockRow> findStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Aggregate that changes with every product write, insert and delete, without reading any product payload
+    @Query("SELECT new com.hackaton1.resu.dto.CatalogVersion(COUNT(p), COALESCE(MAX(p.id), 0), COALESCE(SUM(p.version), 0), MAX(p.updatedAt)) "
+            + "FROM Product p")
+    CatalogVersion findCatalogVersion();
+}
@@ -0,0 +1,49 @@
+package com.hackaton1.resu.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom stock operations for {@link ProductRepository} that are not expressible as derived queries.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically reserve stock of several products in one JDBC batch.
+     * Each product is only reserved if enough unreserved stock is left; the check and the
+     * update happen in a single statement so concurrent orders cannot oversell.
+     * The batch joins the caller's transaction, so a rollback releases the reservations.
+     *
+     * @param quantities the quantity to reserve, keyed by product ID
+     * @return the IDs of the products that do not have enough available stock
+     */
+    List<Long> reserveStock(Map<Long, Integer> quantities);
+
+    /**
+     * Atomically deduct previously reserved units from the stock of several products in one JDBC batch.
+     * The batch runs in one transaction and bumps the version of every updated product.
+     * A product is only updated if it holds that many reserved units and its stock stays non-negative.
+     *
+     * @param quantities the reserved quantity to deduct, keyed by product ID
+     * @return the IDs of the products that did not hold that many reserved units or that much stock
+     */
+    List<Long> deductReservedStock(Map<Long, Integer> quantities);
+
+    /**
+     * Undo a deduction made by {@link #deductReservedStock} in one JDBC batch, putting the units back into
+     * the stock as reserved units. The batch joins the caller's transaction.
+     *
+     * @param quantities the deducted quantity to restore, keyed by product ID
+     * @return the IDs of the products that do not exist
+     */
+    List<Long> restoreDeductedStock(Map<Long, Integer> quantities);
+
+    /**
+     * Atomically release previously reserved units of several products in one JDBC batch, leaving the stock as is,
+     * so the units can be ordered again. The batch joins the caller's transaction.
+     *
+     * @param quantities the reserved quantity to release, keyed by product ID
+     * @return the IDs of the products that did not hold that many reserved units
+     */
+    List<Long> releaseReservedStock(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,117 @@
+package com.hackaton1.resu.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link ProductRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE product SET reserved = reserved + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock - reserved >= ?";
+
+    private static final String DEDUCT_RESERVED_STOCK_SQL =
+            "UPDATE product SET stock = stock - ?, reserved = reserved - ?, version = version + 1, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE id = ? AND reserved >= ? AND stock >= ?";
+
+    private static final String RESTORE_DEDUCTED_STOCK_SQL =
+            "UPDATE product SET stock = stock + ?, reserved = reserved + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final String RELEASE_RESERVED_STOCK_SQL =
+            "UPDATE product SET reserved = reserved - ?, version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND reserved >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> reserveStock(Map<Long, Integer> quantities) {
+        return batchUpdate(RESERVE_STOCK_SQL, quantities, (ps, productId, quantity) -> {
+            ps.setInt(1, quantity);
+            ps.setLong(2, productId);
+            ps.setInt(3, quantity);
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deductReservedStock(Map<Long, Integer> quantities) {
+        return batchUpdate(DEDUCT_RESERVED_STOCK_SQL, quantities, (ps, productId, quantity) -> {
+            ps.setInt(1, quantity);
+            ps.setInt(2, quantity);
+            ps.setLong(3, productId);
+            ps.setInt(4, quantity);
+            ps.setInt(5, quantity);
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> restoreDeductedStock(Map<Long, Integer> quantities) {
+        return batchUpdate(RESTORE_DEDUCTED_STOCK_SQL, quantities, (ps, productId, quantity) -> {
+            ps.setInt(1, quantity);
+            ps.setInt(2, quantity);
+            ps.setLong(3, productId);
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> releaseReservedStock(Map<Long, Integer> quantities) {
+        return batchUpdate(RELEASE_RESERVED_STOCK_SQL, quantities, (ps, productId, quantity) -> {
+            ps.setInt(1, quantity);
+            ps.setLong(2, productId);
+            ps.setInt(3, quantity);
+        });
+    }
+
+    /**
+     * Run one conditional update per product as a single JDBC batch.
+     *
+     * @return the IDs of the products whose update matched no row
+     */
+    private List<Long> batchUpdate(String sql, Map<Long, Integer> quantities, StockStatementSetter setter) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+
+        // Update rows in ID order so concurrent batches lock them in the same order and cannot deadlock
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> entry = entries.get(i);
+                setter.setValues(ps, entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                failed.add(entries.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    @FunctionalInterface
+    private interface StockStatementSetter {
+        void setValues(PreparedStatement ps, long productId, int quantity) throws SQLException;
+    }
+}
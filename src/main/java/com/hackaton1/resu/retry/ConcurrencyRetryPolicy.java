@@ -0,0 +1,103 @@
+package com.hackaton1.resu.retry;
+
+import com.hackaton1.resu.config.RetryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Retries an operation with exponential backoff and jitter when it fails because another
+ * transaction modified the same rows (optimistic lock conflict, lock timeout or deadlock).
+ * Each attempt must run in its own transaction, so callers wrap the whole transactional unit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConcurrencyRetryPolicy {
+
+    private final RetryProperties properties;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Run an operation, retrying it on concurrency conflicts.
+     *
+     * @param operation name of the operation, used for logging
+     * @param action the operation to run; it is invoked once per attempt
+     * @return the result of the first successful attempt
+     * @throws ConcurrencyFailureException if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    exhausted.increment();
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw e;
+                }
+                retries.increment();
+                long backoffMillis = backoffMillis(attempt);
+                log.debug("Conflict on {} (attempt {}), retrying in {} ms", operation, attempt, backoffMillis);
+                sleep(backoffMillis);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Get the number of attempts that failed with a concurrency conflict.
+     *
+     * @return the conflict count
+     */
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Get the number of attempts that were retried after a conflict.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Get the number of operations that still conflicted after the last attempt.
+     *
+     * @return the exhausted count
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    private long backoffMillis(int attempt) {
+        long base = properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        long backoff = Math.min(base, properties.getMaxBackoff().toMillis());
+        long jitter = (long) (backoff * properties.getJitter() * ThreadLocalRandom.current().nextDouble());
+        return backoff - jitter;
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.config.AsyncConfig;
+import com.hackaton1.resu.config.InventoryBatchProperties;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.retry.ConcurrencyRetryPolicy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces the inventory updates of many orders into one flush.
+ * Orders are collected for a short window or up to a maximum count; a flush then claims them,
+ * sums the deductions per product and applies them as one JDBC batch in one transaction.
+ * If a product cannot cover the summed deduction, its lines are re-applied order by order
+ * so the failure is attributed to the orders that could not be covered. Only fully deducted orders
+ * are marked as applied; the others deduct nothing and keep their reservation.
+ */
+@Service
+@Slf4j
+public class InventoryBatcher {
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final ConcurrencyRetryPolicy retryPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryBatchProperties properties;
+    private final Executor flushExecutor;
+    private final ProductCache productCache;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "InventoryBatchTimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private Map<Long, PendingOrder> pending = new LinkedHashMap<>();
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedOrders = new LongAdder();
+
+    public InventoryBatcher(ProductRepository productRepository,
+                            OrderRepository orderRepository,
+                            ConcurrencyRetryPolicy retryPolicy,
+                            TransactionTemplate transactionTemplate,
+                            InventoryBatchProperties properties,
+                            @Qualifier(AsyncConfig.INVENTORY_EXECUTOR) Executor flushExecutor,
+                            ProductCache productCache,
+                            OrderPipelineMetrics pipelineMetrics) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.retryPolicy = retryPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.flushExecutor = flushExecutor;
+        this.productCache = productCache;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    /**
+     * Queue the inventory update of an order for the next flush.
+     *
+     * @param order the order, with its items and products loaded
+     * @return a future that completes with the outcome once the batch containing the order is committed
+     */
+    public CompletableFuture<Outcome> submit(Order order) {
+        CompletableFuture<Outcome> future = new CompletableFuture<>();
+        boolean first;
+        boolean full;
+        synchronized (lock) {
+            first = pending.isEmpty();
+            pending.computeIfAbsent(order.getId(), id -> new PendingOrder(order, new ArrayList<>())).futures().add(future);
+            full = pending.size() >= properties.getMaxSize();
+        }
+        if (first) {
+            // The timer flushes on its own thread, so a busy lane executor cannot leave a batch behind
+            windowTimer.schedule(this::flush, properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (full) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                log.debug("Inventory lane is saturated, leaving the batch of {} orders to the window timer", properties.getMaxSize());
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Apply all queued updates now.
+     */
+    public void flush() {
+        Map<Long, PendingOrder> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        Map<Long, Outcome> outcomes;
+        try {
+            outcomes = pipelineMetrics.getInventoryFlushTimer().record(() ->
+                    retryPolicy.execute("inventory flush", () -> transactionTemplate.execute(status -> apply(batch))));
+        } catch (RuntimeException e) {
+            log.error("Inventory flush of {} orders failed", batch.size(), e);
+            batch.values().forEach(order -> order.futures().forEach(future -> future.completeExceptionally(e)));
+            return;
+        }
+
+        flushes.increment();
+        flushedOrders.add(batch.size());
+        pipelineMetrics.countInventoryStockFailures((int) outcomes.values().stream()
+                .filter(outcome -> !outcome.failedProductIds().isEmpty())
+                .count());
+        log.debug("Flushed inventory updates of {} orders", batch.size());
+        batch.forEach((orderId, order) -> order.futures().forEach(future -> future.complete(outcomes.get(orderId))));
+    }
+
+    private Map<Long, Outcome> apply(Map<Long, PendingOrder> batch) {
+        Map<Long, Outcome> outcomes = new HashMap<>();
+        batch.keySet().forEach(orderId -> outcomes.put(orderId, Outcome.ALREADY_APPLIED));
+
+        Set<Long> claimed = new HashSet<>(orderRepository.lockInventoryPendingIds(batch.keySet()));
+        if (claimed.isEmpty()) {
+            return outcomes;
+        }
+
+        Map<Long, Map<Long, Integer>> quantitiesByOrder = new LinkedHashMap<>();
+        Map<Long, Integer> totals = new HashMap<>();
+        batch.forEach((orderId, pendingOrder) -> {
+            if (claimed.contains(orderId)) {
+                Map<Long, Integer> quantities = quantities(pendingOrder.order());
+                quantitiesByOrder.put(orderId, quantities);
+                quantities.forEach((productId, quantity) -> totals.merge(productId, quantity, Integer::sum));
+            }
+        });
+
+        Set<Long> failedProducts = new HashSet<>(productRepository.deductReservedStock(totals));
+        List<Long> applied = new ArrayList<>();
+        quantitiesByOrder.forEach((orderId, quantities) -> {
+            Map<Long, Integer> shortLines = quantities.entrySet().stream()
+                    .filter(entry -> failedProducts.contains(entry.getKey()))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            // Products that could not cover the whole batch are applied in arrival order to find the short orders
+            Set<Long> failed = shortLines.isEmpty() ? Set.of() : Set.copyOf(productRepository.deductReservedStock(shortLines));
+            if (failed.isEmpty()) {
+                applied.add(orderId);
+            } else {
+                // A short order is applied entirely or not at all: its other lines go back, so it keeps its reservation
+                productRepository.restoreDeductedStock(quantities.entrySet().stream()
+                        .filter(entry -> !failed.contains(entry.getKey()))
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+            }
+            outcomes.put(orderId, new Outcome(false, failed));
+        });
+        productCache.invalidateStock(totals.keySet());
+        if (!applied.isEmpty()) {
+            orderRepository.markInventoryApplied(applied);
+        }
+        return outcomes;
+    }
+
+    private static Map<Long, Integer> quantities(Order order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        windowTimer.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Get the number of committed flushes.
+     *
+     * @return the flush count
+     */
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Get the number of orders applied by committed flushes.
+     *
+     * @return the order count
+     */
+    public long getFlushedOrderCount() {
+        return flushedOrders.sum();
+    }
+
+    /**
+     * Outcome of the inventory update of one order.
+     *
+     * @param alreadyApplied whether an earlier delivery had already applied the order
+     * @param failedProductIds the products whose reserved stock could not cover the order; if any, nothing of the order was deducted
+     */
+    public record Outcome(boolean alreadyApplied, Set<Long> failedProductIds) {
+
+        static final Outcome ALREADY_APPLIED = new Outcome(true, Set.of());
+    }
+
+    private record PendingOrder(Order order, List<CompletableFuture<Outcome>> futures) {
+    }
+}
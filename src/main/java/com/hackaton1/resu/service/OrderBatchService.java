@@ -0,0 +1,260 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.config.OrderBatchProperties;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.OrderBatchResultDTO;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
+import com.hackaton1.resu.model.Money;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.OutboxEvent;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.tracing.Tracer;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service for creating many orders in one call.
+ * All products of the batch are loaded once. Orders are then written in chunks, each in its own
+ * transaction: the stock of a whole chunk is reserved with one JDBC batch, and the orders and their
+ * outbox events are saved together. If the chunk reservation fails for some product, the chunk is
+ * rolled back and replayed order by order so the shortage is reported against the right orders,
+ * and the stock of its products is re-read for the following chunks.
+ * The loaded stock may be stale, so orders it cannot cover are not rejected up front but reserved
+ * one by one, and only rejected if the conditional reservation fails.
+ * If a chunk fails with an error, the batch stops there: the orders of the committed chunks are
+ * reported as created and the rest as failed, so the client can resend exactly the failed ones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchService {
+
+    private final ProductService productService;
+    private final OrderMapper orderMapper;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final OrderBatchProperties properties;
+    private final ProductCache productCache;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final Tracer tracer;
+
+    /**
+     * Create a batch of orders.
+     *
+     * @param requests the orders to create
+     * @return the outcome of every order, in request order
+     */
+    public OrderBatchResultDTO createOrders(List<CreateOrderRequest> requests) {
+        log.info("Creating batch of {} orders", requests.size());
+        OrderBatchResultDTO.Entry[] results = new OrderBatchResultDTO.Entry[requests.size()];
+
+        // Validate every order up front so one bad order does not fail the whole batch
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = rejected(i, OrderBatchResultDTO.Status.INVALID, error, null);
+            }
+        }
+
+        // Resolve the products of all orders with one query
+        Map<Long, Product> products = productService.getProductsByIds(valid.stream()
+                .flatMap(i -> requests.get(i).getItems().stream())
+                .map(CreateOrderRequest.OrderItemRequest::getProductId)
+                .collect(Collectors.toSet()));
+        Map<Long, Integer> available = new HashMap<>();
+        products.values().forEach(product -> available.put(product.getId(), product.getAvailableStock()));
+
+        for (int start = 0; start < valid.size(); start += properties.getChunkSize()) {
+            List<Integer> chunk = valid.subList(start, Math.min(start + properties.getChunkSize(), valid.size()));
+            Map<Integer, Order> orders = new LinkedHashMap<>();
+            Map<Integer, Order> doubtful = new LinkedHashMap<>();
+            for (Integer i : chunk) {
+                try {
+                    Order order = orderMapper.toEntity(requests.get(i), products);
+                    // Orders the running stock snapshot cannot cover would fail the chunk reservation, so they are
+                    // kept out of it and reserved on their own
+                    if (shortProducts(order, available).isEmpty()) {
+                        order.getItems().forEach(item -> available.merge(item.getProduct().getId(), -item.getQuantity(), Integer::sum));
+                        orders.put(i, order);
+                    } else {
+                        doubtful.put(i, order);
+                    }
+                } catch (IllegalArgumentException e) {
+                    results[i] = rejected(i, OrderBatchResultDTO.Status.INVALID, e.getMessage(), null);
+                }
+            }
+            try {
+                createChunk(orders, doubtful, available, results);
+            } catch (RuntimeException e) {
+                log.error("Batch of {} orders stopped at a failed chunk", requests.size(), e);
+                entityManager.clear();
+                break;
+            }
+        }
+        // Results are only recorded once their transaction has committed, so these orders were not created
+        for (Integer i : valid) {
+            if (results[i] == null) {
+                results[i] = rejected(i, OrderBatchResultDTO.Status.FAILED, "Not created, the batch stopped on an error", null);
+            }
+        }
+
+        List<OrderBatchResultDTO.Entry> entries = List.of(results);
+        int created = (int) entries.stream().filter(entry -> entry.getStatus() == OrderBatchResultDTO.Status.CREATED).count();
+        pipelineMetrics.countBatchStockFailures((int) entries.stream()
+                .filter(entry -> entry.getStatus() == OrderBatchResultDTO.Status.INSUFFICIENT_STOCK)
+                .count());
+        log.info("Batch created {} of {} orders", created, requests.size());
+        return OrderBatchResultDTO.builder()
+                .created(created)
+                .rejected(requests.size() - created)
+                .results(entries)
+                .build();
+    }
+
+    private void createChunk(Map<Integer, Order> orders, Map<Integer, Order> doubtful, Map<Long, Integer> available,
+                             OrderBatchResultDTO.Entry[] results) {
+        Map<Integer, OrderBatchResultDTO.Entry> chunkResults = orders.isEmpty() ? Map.of() : transactionTemplate.execute(status -> {
+            Map<Long, Integer> totals = new HashMap<>();
+            orders.values().forEach(order -> quantities(order).forEach((productId, quantity) -> totals.merge(productId, quantity, Integer::sum)));
+            if (!productRepository.reserveStock(totals).isEmpty()) {
+                status.setRollbackOnly();
+                return null;
+            }
+            productCache.invalidateStock(totals.keySet());
+            return save(orders);
+        });
+        boolean created = chunkResults != null;
+        if (created) {
+            chunkResults.forEach((i, entry) -> results[i] = entry);
+        }
+
+        // Orders are reserved in request order, so earlier orders get the stock first as in the chunk reservation
+        Map<Integer, Order> single = new TreeMap<>(doubtful);
+        if (!created) {
+            log.info("Stock changed while reserving a chunk of {} orders, reserving order by order", orders.size());
+            single.putAll(orders);
+        }
+        if (!single.isEmpty()) {
+            Map<Integer, OrderBatchResultDTO.Entry> singleResults = transactionTemplate.execute(status -> {
+                Map<Integer, OrderBatchResultDTO.Entry> outcomes = new HashMap<>();
+                Map<Integer, Order> reserved = new LinkedHashMap<>();
+                single.forEach((i, order) -> {
+                    List<Long> failed = productRepository.reserveStock(quantities(order));
+                    if (failed.isEmpty()) {
+                        productCache.invalidateStock(quantities(order).keySet());
+                        reserved.put(i, order);
+                    } else {
+                        outcomes.put(i, rejected(i, OrderBatchResultDTO.Status.INSUFFICIENT_STOCK, "Insufficient stock", failed));
+                    }
+                });
+                outcomes.putAll(save(reserved));
+                return outcomes;
+            });
+            singleResults.forEach((i, entry) -> results[i] = entry);
+            // The snapshot was off for these products and counted the rejected orders, so re-read the stock
+            refreshAvailable(single, available);
+        }
+    }
+
+    private void refreshAvailable(Map<Integer, Order> orders, Map<Long, Integer> available) {
+        Set<Long> productIds = orders.values().stream()
+                .flatMap(order -> order.getItems().stream())
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet());
+        productRepository.findStockByIdIn(productIds).forEach(row -> available.put(row.id(), row.stock() - row.reserved()));
+    }
+
+    private Map<Integer, OrderBatchResultDTO.Entry> save(Map<Integer, Order> orders) {
+        String traceParent = tracer.currentTraceParent();
+        List<Order> saved = orderRepository.saveAll(orders.values());
+        outboxEventRepository.saveAll(saved.stream()
+                .map(order -> OutboxEvent.builder()
+                        .eventType(OutboxEvent.ORDER_CREATED)
+                        .aggregateId(order.getId())
+                        .traceParent(traceParent)
+                        .build())
+                .toList());
+        entityManager.flush();
+
+        Map<Integer, OrderBatchResultDTO.Entry> results = new HashMap<>();
+        int n = 0;
+        for (Integer i : orders.keySet()) {
+            Order order = saved.get(n++);
+            results.put(i, OrderBatchResultDTO.Entry.builder()
+                    .index(i)
+                    .status(OrderBatchResultDTO.Status.CREATED)
+                    .orderId(order.getId())
+                    .total(Money.toDecimal(order.getTotalCents()))
+                    .build());
+        }
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+        return results;
+    }
+
+    private String validate(CreateOrderRequest request) {
+        if (request == null) {
+            return "Order is missing";
+        }
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        return null;
+    }
+
+    private static List<Long> shortProducts(Order order, Map<Long, Integer> available) {
+        // The mapper merges lines per product, so each product appears in one item
+        return order.getItems().stream()
+                .filter(item -> available.getOrDefault(item.getProduct().getId(), 0) < item.getQuantity())
+                .map(item -> item.getProduct().getId())
+                .toList();
+    }
+
+    private static Map<Long, Integer> quantities(Order order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static OrderBatchResultDTO.Entry rejected(int index, OrderBatchResultDTO.Status status, String error, List<Long> productIds) {
+        return OrderBatchResultDTO.Entry.builder()
+                .index(index)
+                .status(status)
+                .error(error)
+                .productIds(productIds)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.CustomerSummaryDTO;
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.dto.OrderItemRow;
+import com.hackaton1.resu.model.Money;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
+import com.hackaton1.resu.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only service that builds order DTOs from database projections.
+ * No Order entities are hydrated, so reads pay neither for dirty-checking snapshots
+ * nor for persistence-context bookkeeping. Each read runs two statements.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderQueryService {
+
+    private final OrderRepository orderRepository;
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+
+    /**
+     * Get a page of orders using keyset pagination on the ID.
+     *
+     * @param afterId only orders with a greater ID are returned
+     * @param size the maximum number of orders
+     * @return the order DTOs, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersPage(long afterId, int size) {
+        return getOrders(orderRepository.findIdsAfter(afterId, Limit.of(size)));
+    }
+
+    /**
+     * Get a page of the orders of a customer using keyset pagination on the ID.
+     *
+     * @param email the customer email
+     * @param afterId only orders with a greater ID are returned
+     * @param size the maximum number of orders
+     * @return the order DTOs, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByCustomerPage(String email, long afterId, int size) {
+        return getOrders(orderRepository.findIdsByCustomerEmailAfter(email, afterId, Limit.of(size)));
+    }
+
+    /**
+     * Get the order summary of a customer from the incrementally maintained aggregate.
+     * A customer without orders gets an empty summary.
+     *
+     * @param email the customer email
+     * @return the customer summary
+     */
+    @Transactional(readOnly = true)
+    public CustomerSummaryDTO getCustomerSummary(String email) {
+        return customerOrderSummaryRepository.findById(email)
+                .map(summary -> CustomerSummaryDTO.builder()
+                        .customerEmail(summary.getCustomerEmail())
+                        .orderCount(summary.getOrderCount())
+                        .lifetimeTotal(Money.toDecimal(summary.getLifetimeTotalCents()))
+                        .lastOrderDate(summary.getLastOrderAt())
+                        .build())
+                .orElseGet(() -> CustomerSummaryDTO.builder()
+                        .customerEmail(email)
+                        .orderCount(0)
+                        .lifetimeTotal(Money.toDecimal(0))
+                        .build());
+    }
+
+    /**
+     * Get an order by ID.
+     *
+     * @param id the order ID
+     * @return the order DTO if found, otherwise empty
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderDTO> getOrderById(Long id) {
+        return getOrders(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Check whether an order exists.
+     *
+     * @param id the order ID
+     * @return true if the order exists
+     */
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return orderRepository.existsById(id);
+    }
+
+    /**
+     * Get orders by ID.
+     *
+     * @param ids the order IDs
+     * @return the order DTOs that exist, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrders(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<OrderDTO> orders = orderRepository.findOrderDTOsByIdIn(ids);
+        Map<Long, OrderDTO> ordersById = new HashMap<>(orders.size() * 2);
+        for (OrderDTO order : orders) {
+            order.setItems(new ArrayList<>());
+            ordersById.put(order.getId(), order);
+        }
+        for (OrderItemRow row : orderRepository.findOrderItemRowsByOrderIdIn(ids)) {
+            ordersById.get(row.orderId()).getItems().add(row.toDTO());
+        }
+        return orders;
+    }
+}
@@ -1,16 +1,28 @@
 package com.hackaton1.resu.service;
 
-import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.exception.InsufficientStockException;
 import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.OutboxEvent;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
 import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.tracing.Tracer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service for managing orders.
@@ -21,69 +33,123 @@ import java.util.Optional;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRepository productRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+    private final EntityManager entityManager;
+    private final ProductCache productCache;
+    private final Tracer tracer;
 
     /**
-     * Get all orders.
+     * Stream all orders in ID order, handing them to the consumer in chunks.
+     * Items and products of each chunk are batch-fetched when first accessed, and the persistence
+     * context is cleared after every chunk so memory stays flat regardless of the number of orders.
      *
-     * @return list of all orders
+     * @param chunkSize the number of orders per chunk
+     * @param consumer receives each chunk; the orders are only usable during the call
      */
     @Transactional(readOnly = true)
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    public void streamAllOrders(int chunkSize, Consumer<List<Order>> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
     }
 
     /**
-     * Get an order by ID.
-     *
-     * @param id the order ID
-     * @return the order if found, otherwise empty
-     */
-    @Transactional(readOnly = true)
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
-    }
-
-    /**
-     * Get orders by customer email.
-     *
-     * @param email the customer email
-     * @return list of orders for the customer
-     */
-    @Transactional(readOnly = true)
-    public List<Order> getOrdersByCustomerEmail(String email) {
-        return orderRepository.findByCustomerEmail(email);
-    }
-
-    /**
-     * Create a new order and publish an OrderCreatedEvent.
+     * Create a new order and record an OrderCreatedEvent in the outbox.
+     * The stock reservation, the order insert and the outbox entry share one transaction,
+     * so an order is either stored with its stock held and its event queued, or not at all.
+     * The event is delivered to the listeners by the {@link OutboxRelay} after commit.
      *
      * @param order the order to create
      * @return the created order
+     * @throws InsufficientStockException if any product does not have enough available stock
      */
     @Transactional
     public Order createOrder(Order order) {
         log.info("Creating new order for customer: {}", order.getCustomerEmail());
         
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        
+        // Reject orders that fresh cached stock already cannot satisfy without touching the database;
+        // products whose cached stock is past its TTL are left to the reservation
+        List<Long> shortProducts = quantities.entrySet().stream()
+                .filter(line -> productCache.getFreshAvailableStock(line.getKey()).orElse(Integer.MAX_VALUE) < line.getValue())
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!shortProducts.isEmpty()) {
+            throw new InsufficientStockException(shortProducts);
+        }
+        
+        // Reserve the stock; the conditional update is authoritative under concurrent orders
+        List<Long> failed = productRepository.reserveStock(quantities);
+        if (!failed.isEmpty()) {
+            throw new InsufficientStockException(failed);
+        }
+        productCache.invalidateStock(quantities.keySet());
+        
         // Save the order to the database
         Order savedOrder = orderRepository.save(order);
         
         log.info("Order created successfully with ID: {}", savedOrder.getId());
         
-        // Publish the OrderCreatedEvent
-        log.info("Publishing OrderCreatedEvent for order ID: {}", savedOrder.getId());
-        eventPublisher.publishEvent(new OrderCreatedEvent(this, savedOrder));
+        // Queue the OrderCreatedEvent for the outbox relay
+        log.info("Recording OrderCreatedEvent for order ID: {}", savedOrder.getId());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.ORDER_CREATED)
+                .aggregateId(savedOrder.getId())
+                .traceParent(tracer.currentTraceParent())
+                .build());
         
         return savedOrder;
     }
 
     /**
-     * Delete an order by ID.
+     * Delete an order by ID, undoing its effects in the same transaction.
+     * The listener work of the order is claimed first, so a concurrent delivery of its event skips it:
+     * the stock it still holds reserved is released, its pending outbox event is dropped and, if it was
+     * already counted, it is removed from the customer summary. Stock already deducted is not restored.
      *
      * @param id the order ID
      */
     @Transactional
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        boolean counted = orderRepository.markSummaryApplied(id) == 0;
+        boolean reserved = !orderRepository.lockInventoryPendingIds(List.of(id)).isEmpty();
+        Order order = orderRepository.findAllWithItemsByIdIn(List.of(id)).stream().findFirst().orElse(null);
+        if (order == null) {
+            return;
+        }
+
+        if (reserved) {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+            productRepository.releaseReservedStock(quantities);
+            productCache.invalidateStock(quantities.keySet());
+        }
+        outboxEventRepository.deletePendingByAggregateId(id);
+        orderRepository.delete(order);
+        entityManager.flush();
+        if (counted) {
+            customerOrderSummaryRepository.removeOrder(order.getCustomerEmail(), order.getTotalCents());
+        }
+        log.info("Order {} deleted", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.config.OutboxProperties;
+import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.listener.OrderCreatedListener;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OutboxEvent;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.tracing.Span;
+import com.hackaton1.resu.tracing.SpanStore;
+import com.hackaton1.resu.tracing.Tracer;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background relay that delivers the events stored in the outbox to the order listeners.
+ * Events are polled in batches and only marked as processed once every listener has
+ * completed, so delivery is at least once and survives crashes between commit and dispatch.
+ * Each event is dispatched in a span that continues the trace stored with it, and each listener
+ * runs in a child span that ends when the listener completes.
+ * An event that fails on every attempt is dead-lettered and counted in resu.outbox.dead.lettered for alerting;
+ * the order stays accepted and keeps its reserved stock until an operator redelivers the event by clearing
+ * its dead_lettered_at and attempts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderRepository orderRepository;
+    private final List<OrderCreatedListener> listeners;
+    private final OutboxProperties properties;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final Tracer tracer;
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    /**
+     * Relay pending events until the outbox is drained.
+     */
+    @Scheduled(fixedDelayString = "${resu.outbox.poll-interval:100ms}")
+    public void relayPendingEvents() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == properties.getBatchSize());
+    }
+
+    /**
+     * Purge events that were relayed longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purgeProcessedEvents() {
+        int purged = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (purged > 0) {
+            log.info("Purged {} relayed outbox events", purged);
+        }
+    }
+
+    /**
+     * Relay one batch of pending events.
+     *
+     * @return the number of events that were delivered to every listener
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findPending(
+                properties.getMaxAttempts(), PageRequest.of(0, properties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> orderIds = batch.stream().map(OutboxEvent::getAggregateId).collect(Collectors.toSet());
+        Map<Long, Order> orders = orderRepository.findAllWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        Timer.Sample dispatchSample = Timer.start();
+        Map<Long, CompletableFuture<Void>> dispatches = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            pipelineMetrics.recordOutboxLag(outboxEvent.getCreatedAt());
+            dispatches.put(outboxEvent.getId(), dispatch(outboxEvent, orders.get(outboxEvent.getAggregateId())));
+        }
+
+        awaitDispatches(dispatches.values());
+        dispatchSample.stop(pipelineMetrics.getOutboxDispatchTimer());
+
+        List<Long> processed = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        int deferred = 0;
+        for (Map.Entry<Long, CompletableFuture<Void>> entry : dispatches.entrySet()) {
+            CompletableFuture<Void> future = entry.getValue();
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                processed.add(entry.getKey());
+            } else if (isRejected(future)) {
+                // The executor was saturated; not a delivery failure, so the attempt is not counted
+                deferred++;
+            } else {
+                failed.add(entry.getKey());
+            }
+        }
+
+        if (!processed.isEmpty()) {
+            outboxEventRepository.markProcessed(processed, LocalDateTime.now());
+        }
+        if (!failed.isEmpty()) {
+            outboxEventRepository.incrementAttempts(failed);
+            List<OutboxEvent> exhausted = batch.stream()
+                    .filter(event -> failed.contains(event.getId()) && event.getAttempts() + 1 >= properties.getMaxAttempts())
+                    .toList();
+            if (failed.size() > exhausted.size()) {
+                log.warn("Failed to relay {} outbox events, they will be retried", failed.size() - exhausted.size());
+            }
+            if (!exhausted.isEmpty()) {
+                deadLetter(exhausted);
+            }
+        }
+        if (deferred > 0) {
+            log.warn("Listener executor saturated, {} outbox events deferred to the next poll", deferred);
+        }
+        return processed.size();
+    }
+
+    /**
+     * Stop relaying events that failed on every attempt.
+     * The stock reserved by their orders stays held: the orders were accepted, so the units are promised.
+     *
+     * @param events the exhausted events
+     */
+    void deadLetter(List<OutboxEvent> events) {
+        outboxEventRepository.markDeadLettered(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        deadLettered.add(events.size());
+        for (OutboxEvent event : events) {
+            log.error("Outbox event {} of order {} failed {} times, moved to dead letters; its reserved stock stays held",
+                    event.getId(), event.getAggregateId(), properties.getMaxAttempts());
+        }
+    }
+
+    private CompletableFuture<Void> dispatch(OutboxEvent outboxEvent, Order order) {
+        // Continues the trace of the request that created the order
+        Span eventSpan = tracer.startSpan("outbox.dispatch", outboxEvent.getTraceParent())
+                .tag(SpanStore.ORDER_ID, outboxEvent.getAggregateId())
+                .tag("outbox.event.id", outboxEvent.getId())
+                .tag("outbox.attempts", outboxEvent.getAttempts());
+        if (order == null) {
+            log.warn("Order {} of outbox event {} no longer exists, skipping", outboxEvent.getAggregateId(), outboxEvent.getId());
+            eventSpan.tag("skipped", "order no longer exists").end();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        OrderCreatedEvent event = new OrderCreatedEvent(this, order);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(listeners.size());
+        try (Tracer.Scope eventScope = tracer.activate(eventSpan)) {
+            for (OrderCreatedListener listener : listeners) {
+                String name = listenerName(listener);
+                long dispatchedAt = System.nanoTime();
+                // Current while the listener is invoked, so the executor runs it in this span
+                Span listenerSpan = tracer.startSpan("listener." + name).tag(SpanStore.ORDER_ID, order.getId());
+                try (Tracer.Scope listenerScope = tracer.activate(listenerSpan)) {
+                    CompletableFuture<Void> future = listener.handleOrderCreatedEvent(event);
+                    future.whenComplete((result, failure) -> {
+                        pipelineMetrics.recordListenerLatency(name, System.nanoTime() - dispatchedAt, failure == null);
+                        if (failure != null) {
+                            listenerSpan.error(failure);
+                        }
+                        listenerSpan.end();
+                    });
+                    futures.add(future);
+                } catch (TaskRejectedException e) {
+                    listenerSpan.error(e).end();
+                    if (listener.isBestEffort()) {
+                        // Best-effort work is shed so it cannot hold the event back
+                        shed.increment();
+                        log.debug("Shed {} for order {}: executor saturated", name, order.getId());
+                    } else {
+                        // The executor is saturated; the event stays pending and is retried on the next poll
+                        futures.add(CompletableFuture.failedFuture(e));
+                    }
+                }
+            }
+        }
+        CompletableFuture<Void> dispatched = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        dispatched.whenComplete((result, failure) -> eventSpan.end());
+        return dispatched;
+    }
+
+    private static String listenerName(OrderCreatedListener listener) {
+        // Listeners running on an executor are proxies
+        return AopUtils.getTargetClass(listener).getSimpleName();
+    }
+
+    /**
+     * Get the number of best-effort listener invocations skipped because their executor was saturated.
+     *
+     * @return the shed count
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * Get the number of events that failed on every attempt and are no longer relayed.
+     *
+     * @return the dead-lettered count
+     */
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+
+    private static boolean isRejected(CompletableFuture<Void> future) {
+        try {
+            future.getNow(null);
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof TaskRejectedException;
+        } catch (CancellationException e) {
+            return false;
+        }
+    }
+
+    private void awaitDispatches(Iterable<CompletableFuture<Void>> dispatches) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        dispatches.forEach(futures::add);
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(properties.getDispatchTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Individual failures are inspected per event by the caller
+        } catch (TimeoutException e) {
+            log.warn("Outbox listeners did not complete within {}", properties.getDispatchTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
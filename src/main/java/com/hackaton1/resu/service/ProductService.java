@@ -1,13 +1,28 @@
 package com.hackaton1.resu.service;
 
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.dto.CatalogVersion;
+import com.hackaton1.resu.exception.InsufficientStockException;
 import com.hackaton1.resu.model.Product;
 import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.retry.ConcurrencyRetryPolicy;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service for managing products.
@@ -17,6 +32,10 @@ import java.util.Optional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ConcurrencyRetryPolicy retryPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ProductCache productCache;
 
     /**
      * Get all products.
@@ -29,25 +48,126 @@ public class ProductService {
     }
 
     /**
-     * Get a product by ID.
+     * Get a page of products using keyset pagination on the ID.
+     *
+     * @param afterId only products with a greater ID are returned
+     * @param size the maximum number of products
+     * @return the products, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsPage(long afterId, int size) {
+        return productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+    }
+
+    /**
+     * Stream all products in ID order, handing them to the consumer in chunks.
+     * The persistence context is cleared after every chunk so memory stays flat.
+     *
+     * @param chunkSize the number of products per chunk
+     * @param consumer receives each chunk; the products are only usable during the call
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProducts(int chunkSize, Consumer<List<Product>> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+    }
+
+    /**
+     * Get the current version of the whole catalog, used to validate cached product lists.
+     *
+     * @return the catalog version
+     */
+    @Transactional(readOnly = true)
+    public CatalogVersion getCatalogVersion() {
+        return productRepository.findCatalogVersion();
+    }
+
+    /**
+     * Get a product by ID, from the product cache when it is fresh.
      *
      * @param id the product ID
      * @return the product if found, otherwise empty
      */
-    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.get(id);
+    }
+
+    /**
+     * Get several products by ID, from the product cache when fresh and otherwise with a single query.
+     * IDs that do not exist are simply absent from the returned map.
+     *
+     * @param ids the product IDs
+     * @return the products found, keyed by ID
+     */
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return productCache.getAll(ids);
     }
 
     /**
      * Save a product.
+     * <p>
+     * An update that carries a version fails with an optimistic locking exception if the product
+     * changed since that version. An update without a version is applied to the latest state of the
+     * product and retried if another writer commits in between.
      *
      * @param product the product to save
      * @return the saved product
+     * @throws InsufficientStockException if the new stock is below the units reserved by pending orders
      */
-    @Transactional
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved;
+        if (product.getId() == null) {
+            saved = transactionTemplate.execute(status -> productRepository.save(product));
+        } else if (product.getVersion() != null) {
+            // The caller edited a specific version; a conflict means its view is stale and retrying cannot help
+            saved = transactionTemplate.execute(status -> applyUpdate(product));
+        } else {
+            saved = retryPolicy.execute("save product " + product.getId(),
+                    () -> transactionTemplate.execute(status -> applyUpdate(product)));
+        }
+
+        // Write through, so the next read of the product is served from memory
+        productCache.put(saved);
+        return saved;
+    }
+
+    /**
+     * Copy the editable fields of a product onto its current state, keeping reserved stock intact.
+     * The stock cannot drop below the reserved units, or orders already accepted could not be fulfilled;
+     * reservations bump the version, so one taken after the check fails the save instead.
+     *
+     * @param product the product carrying the new values
+     * @return the updated product
+     */
+    private Product applyUpdate(Product product) {
+        Product current = productRepository.findById(product.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + product.getId()));
+        if (product.getVersion() != null && !product.getVersion().equals(current.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
+        if (product.getStock() < current.getReserved()) {
+            throw new InsufficientStockException(List.of(product.getId()));
+        }
+        current.setName(product.getName());
+        current.setPriceCents(product.getPriceCents());
+        current.setStock(product.getStock());
+        return productRepository.saveAndFlush(current);
     }
 
     /**
@@ -58,5 +178,6 @@ public class ProductService {
     @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productCache.evict(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.hackaton1.resu.tracing;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed operation within a trace, identified like a W3C Trace Context span.
+ * Spans may be ended from another thread than the one that started them.
+ */
+public final class Span {
+
+    private static final String VERSION = "00";
+    private static final String SAMPLED = "01";
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String name;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final String thread = Thread.currentThread().getName();
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private final SpanStore store;
+
+    Span(String traceId, String parentId, String name, SpanStore store) {
+        this.traceId = traceId;
+        this.spanId = hex(nonZeroLong());
+        this.parentId = parentId;
+        this.name = name;
+        this.store = store;
+    }
+
+    static String newTraceId() {
+        return hex(nonZeroLong()) + hex(ThreadLocalRandom.current().nextLong());
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Get the W3C traceparent header value that makes a span in another process or thread a child of this one.
+     *
+     * @return the traceparent value
+     */
+    public String getTraceParent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + SAMPLED;
+    }
+
+    /**
+     * Add a tag.
+     *
+     * @param key the tag key
+     * @param value the tag value
+     * @return this span
+     */
+    public Span tag(String key, Object value) {
+        synchronized (tags) {
+            tags.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed.
+     *
+     * @param error the failure
+     * @return this span
+     */
+    public Span error(Throwable error) {
+        return tag("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    /**
+     * End the span and hand it to the span store; later calls have no effect.
+     */
+    public void end() {
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        long durationMicros = (System.nanoTime() - startNanos) / 1_000;
+        Map<String, String> finalTags;
+        synchronized (tags) {
+            finalTags = Map.copyOf(tags);
+        }
+        store.add(new SpanRecord(traceId, spanId, parentId, name, startedAt, durationMicros, thread, finalTags));
+    }
+
+    private static long nonZeroLong() {
+        long value;
+        do {
+            value = ThreadLocalRandom.current().nextLong();
+        } while (value == 0);
+        return value;
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
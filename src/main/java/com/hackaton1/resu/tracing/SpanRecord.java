@@ -0,0 +1,20 @@
+package com.hackaton1.resu.tracing;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A finished span.
+ *
+ * @param traceId the ID of the trace, 32 hex digits
+ * @param spanId the ID of the span, 16 hex digits
+ * @param parentId the ID of the parent span, or null for the root of a trace
+ * @param name the operation, e.g. "order.save" or "listener.InventoryUpdateListener"
+ * @param startedAt when the span started
+ * @param durationMicros how long the span took
+ * @param thread the thread that started the span
+ * @param tags the tags, e.g. order.id
+ */
+public record SpanRecord(String traceId, String spanId, String parentId, String name,
+                         Instant startedAt, long durationMicros, String thread, Map<String, String> tags) {
+}
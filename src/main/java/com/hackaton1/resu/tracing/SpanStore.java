@@ -0,0 +1,102 @@
+package com.hackaton1.resu.tracing;
+
+import com.hackaton1.resu.config.TracingProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-process exporter that keeps the most recent finished spans in a ring buffer for querying.
+ * Older spans are overwritten, so memory stays bounded no matter how many orders are traced.
+ */
+@Component
+public class SpanStore {
+
+    public static final String ORDER_ID = "order.id";
+
+    private final boolean enabled;
+    private final SpanRecord[] spans;
+    private int next;
+    private long added;
+
+    public SpanStore(TracingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.spans = new SpanRecord[Math.max(1, properties.getMaxSpans())];
+    }
+
+    synchronized void add(SpanRecord span) {
+        if (!enabled) {
+            return;
+        }
+        spans[next] = span;
+        next = (next + 1) % spans.length;
+        added++;
+    }
+
+    /**
+     * Find the spans of a trace.
+     *
+     * @param traceId the trace ID
+     * @return the spans still kept, ordered by start time
+     */
+    public List<SpanRecord> findTrace(String traceId) {
+        List<SpanRecord> trace = new ArrayList<>();
+        for (SpanRecord span : snapshot()) {
+            if (span.traceId().equals(traceId)) {
+                trace.add(span);
+            }
+        }
+        trace.sort(Comparator.comparing(SpanRecord::startedAt));
+        return trace;
+    }
+
+    /**
+     * Find the spans of the traces an order took part in.
+     * Spans tagged with another order, such as the dispatch of other orders of the same batch, are left out.
+     *
+     * @param orderId the order ID
+     * @return the spans still kept, ordered by start time
+     */
+    public List<SpanRecord> findOrder(long orderId) {
+        String id = String.valueOf(orderId);
+        List<SpanRecord> spans = snapshot();
+        Set<String> traceIds = new HashSet<>();
+        for (SpanRecord span : spans) {
+            if (id.equals(span.tags().get(ORDER_ID))) {
+                traceIds.add(span.traceId());
+            }
+        }
+
+        List<SpanRecord> order = new ArrayList<>();
+        for (SpanRecord span : spans) {
+            String spanOrderId = span.tags().get(ORDER_ID);
+            if (traceIds.contains(span.traceId()) && (spanOrderId == null || spanOrderId.equals(id))) {
+                order.add(span);
+            }
+        }
+        order.sort(Comparator.comparing(SpanRecord::startedAt));
+        return order;
+    }
+
+    private synchronized List<SpanRecord> snapshot() {
+        int size = (int) Math.min(added, spans.length);
+        List<SpanRecord> snapshot = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            snapshot.add(spans[i]);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the number of spans finished since startup, including those no longer kept.
+     *
+     * @return the span count
+     */
+    public synchronized long getSpanCount() {
+        return added;
+    }
+}
@@ -0,0 +1,162 @@
+package com.hackaton1.resu.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts spans and keeps the current span of each thread.
+ * The current trace and span IDs are also put in the MDC as traceId and spanId, so every log line
+ * written during a span can be correlated with it. As a {@link TaskDecorator}, the tracer carries the
+ * current span of the submitting thread over to the executor thread that runs a task.
+ */
+@Component
+public class Tracer implements TaskDecorator {
+
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+
+    private static final Pattern TRACE_PARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final SpanStore spanStore;
+
+    public Tracer(SpanStore spanStore) {
+        this.spanStore = spanStore;
+    }
+
+    /**
+     * Get the span of the current thread.
+     *
+     * @return the current span, or null outside of any span
+     */
+    public Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start a span as a child of the current span, or as the root of a new trace outside of any span.
+     * The span is not made current; see {@link #activate(Span)}.
+     *
+     * @param name the operation name
+     * @return the started span
+     */
+    public Span startSpan(String name) {
+        Span parent = CURRENT.get();
+        return parent == null
+                ? new Span(Span.newTraceId(), null, name, spanStore)
+                : new Span(parent.getTraceId(), parent.getSpanId(), name, spanStore);
+    }
+
+    /**
+     * Start a span as a child of a span identified by a W3C traceparent value,
+     * e.g. one received in a request header or stored with an outbox event.
+     *
+     * @param name the operation name
+     * @param traceParent the traceparent value, or null
+     * @return the started span; the root of a new trace if the traceparent is missing or malformed
+     */
+    public Span startSpan(String name, String traceParent) {
+        if (traceParent != null) {
+            Matcher matcher = TRACE_PARENT.matcher(traceParent);
+            if (matcher.matches() && !matcher.group(1).equals(INVALID_TRACE_ID)) {
+                return new Span(matcher.group(1), matcher.group(2), name, spanStore);
+            }
+        }
+        return new Span(Span.newTraceId(), null, name, spanStore);
+    }
+
+    /**
+     * Make a span the current span of this thread until the returned scope is closed.
+     *
+     * @param span the span
+     * @return the scope, which restores the previous span when closed
+     */
+    public Scope activate(Span span) {
+        Span previous = CURRENT.get();
+        set(span);
+        return () -> set(previous);
+    }
+
+    /**
+     * Run an operation in a new child span of the current span.
+     *
+     * @param name the operation name
+     * @param operation the operation
+     * @param <T> the result type
+     * @return the result of the operation
+     */
+    public <T> T trace(String name, Supplier<T> operation) {
+        Span span = startSpan(name);
+        try (Scope scope = activate(span)) {
+            return operation.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Tag the current span, if any.
+     *
+     * @param key the tag key
+     * @param value the tag value
+     */
+    public void tag(String key, Object value) {
+        Span span = CURRENT.get();
+        if (span != null) {
+            span.tag(key, value);
+        }
+    }
+
+    /**
+     * Get the W3C traceparent value of the current span, to continue the trace after an asynchronous hand-off.
+     *
+     * @return the traceparent value, or null outside of any span
+     */
+    public String currentTraceParent() {
+        Span span = CURRENT.get();
+        return span == null ? null : span.getTraceParent();
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = activate(span)) {
+                task.run();
+            }
+        };
+    }
+
+    private static void set(Span span) {
+        if (span == null) {
+            CURRENT.remove();
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
+        } else {
+            CURRENT.set(span);
+            MDC.put(TRACE_ID, span.getTraceId());
+            MDC.put(SPAN_ID, span.getSpanId());
+        }
+    }
+
+    /**
+     * Scope of a current span.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
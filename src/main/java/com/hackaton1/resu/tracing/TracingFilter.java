@@ -0,0 +1,55 @@
+package com.hackaton1.resu.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that runs every request in a span.
+ * A traceparent request header continues the caller's trace; the trace ID is returned in the X-Trace-Id
+ * response header, so a slow request can be looked up under /traces.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_PARENT_HEADER = "traceparent";
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Looking at traces should not add traces
+        String path = request.getRequestURI();
+        return path.startsWith("/traces") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startSpan("http " + request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TRACE_PARENT_HEADER));
+        response.setHeader(TRACE_ID_HEADER, span.getTraceId());
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.tag("http.status", response.getStatus());
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hackaton1.resu.async;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Submits listener-like tasks at 5000 per second to a pool that can only sustain about 4000 per second,
+ * and checks which rejection policies lose work.
+ */
+class InstrumentedTaskExecutorLoadTest {
+
+    private static final int TASKS_PER_SECOND = 5000;
+    private static final int TASKS = 10_000;
+    private static final long TASK_NANOS = Duration.ofMillis(2).toNanos();
+
+    @Test
+    void callerRunsPolicyShouldNotDropTasks() {
+        LoadResult result = runLoad(InstrumentedTaskExecutor::callerRunsPolicy);
+
+        assertEquals(TASKS, result.executed);
+        assertEquals(0, result.executor.getRejectedCount());
+        assertTrue(result.executor.getCallerRunsCount() > 0, "Load should saturate the pool");
+    }
+
+    @Test
+    void blockPolicyShouldNotDropTasks() {
+        LoadResult result = runLoad(executor -> executor.blockPolicy(Duration.ofSeconds(5)));
+
+        assertEquals(TASKS, result.executed);
+        assertEquals(0, result.executor.getRejectedCount());
+    }
+
+    @Test
+    void abortPolicyShouldCountRejectedTasks() {
+        LoadResult result = runLoad(executor -> new ThreadPoolExecutor.AbortPolicy());
+
+        assertTrue(result.executor.getRejectedCount() > 0, "Load should saturate the pool");
+        assertEquals(TASKS, result.executed + result.executor.getRejectedCount());
+    }
+
+    private LoadResult runLoad(Function<InstrumentedTaskExecutor, RejectedExecutionHandler> policy) {
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setRejectedExecutionHandler(policy.apply(executor));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        AtomicInteger executed = new AtomicInteger();
+        long intervalNanos = 1_000_000_000L / TASKS_PER_SECOND;
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            try {
+                executor.execute(() -> {
+                    LockSupport.parkNanos(TASK_NANOS); // Simulated blocking listener work
+                    executed.incrementAndGet();
+                });
+            } catch (TaskRejectedException e) {
+                // Counted by the executor
+            }
+        }
+        executor.shutdown();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("[DEBUG_LOG] " + TASKS + " tasks in " + elapsedMillis + " ms: executed " + executed.get()
+                + ", rejected " + executor.getRejectedCount() + ", caller runs " + executor.getCallerRunsCount()
+                + ", max queue wait " + executor.getMaxQueueWait().toMillis() + " ms");
+        return new LoadResult(executor, executed.get());
+    }
+
+    private record LoadResult(InstrumentedTaskExecutor executor, int executed) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.hackaton1.resu.audit;
+
+import com.hackaton1.resu.config.AuditProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSinkTest {
+
+    private static final int RECORDS = 1000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsShouldBeWrittenInBatchesAndFoundByOrderAndTime() throws IOException {
+        // Arrange
+        AuditSink sink = start(properties());
+        Instant base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // Act
+        for (int i = 0; i < RECORDS; i++) {
+            assertTrue(sink.append(record(i, base.plusSeconds(i))));
+        }
+        sink.close();
+
+        // Assert
+        System.out.println("[DEBUG_LOG] Wrote " + sink.getWrittenCount() + " audit records with " + sink.getSyncCount() + " syncs");
+        assertEquals(RECORDS, sink.getWrittenCount());
+        assertEquals(0, sink.getDroppedCount());
+        assertTrue(sink.getSyncCount() < RECORDS, "Records should be synced in batches");
+
+        AuditLogReader reader = new AuditLogReader(directory);
+        List<AuditRecord> byOrder = reader.find(42L, null, null);
+        assertEquals(1, byOrder.size());
+        assertEquals(record(42, base.plusSeconds(42)), byOrder.get(0));
+        assertEquals(10, reader.find(null, base.plusSeconds(100), base.plusSeconds(110)).size());
+    }
+
+    @Test
+    void filesShouldRollOverAndExpire() throws IOException {
+        // Arrange
+        AuditProperties properties = properties();
+        properties.setMaxFileSize(DataSize.ofBytes(1));
+        properties.setBatchSize(1);
+        Path expired = AuditFiles.path(directory, LocalDate.now(ZoneOffset.UTC).minusDays(31), 0);
+        Files.writeString(expired, "");
+        AuditSink sink = start(properties);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            sink.append(record(i, Instant.now()));
+        }
+        sink.close();
+
+        // Assert
+        List<AuditFiles.AuditFile> files = AuditFiles.list(directory);
+        assertFalse(Files.exists(expired));
+        assertEquals(3, files.size()); // One file per batch, since every batch exceeds the size
+        assertEquals(3, new AuditLogReader(directory).find(null, null, null).size());
+    }
+
+    @Test
+    void sampleRateShouldSelectAStableFractionOfOrders() throws IOException {
+        // Arrange
+        AuditProperties properties = properties();
+        properties.setSampleRate(0.25);
+        AuditSink sink = start(properties);
+
+        // Act
+        for (int i = 0; i < RECORDS; i++) {
+            sink.append(record(i, Instant.now()));
+        }
+        sink.close();
+
+        // Assert
+        long written = sink.getWrittenCount();
+        System.out.println("[DEBUG_LOG] Sampled " + written + " of " + RECORDS + " orders");
+        assertTrue(written > RECORDS * 0.2 && written < RECORDS * 0.3);
+        assertEquals(RECORDS, written + sink.getSampledOutCount());
+    }
+
+    @Test
+    void readerShouldSkipLineCutOffByCrash() throws IOException {
+        // Arrange
+        AuditSink sink = start(properties());
+        sink.append(record(1, Instant.now()));
+        sink.close();
+        Path file = AuditFiles.list(directory).get(0).path();
+        Files.writeString(file, "{\"orderId\":2,\"createdAt\":\"20", StandardOpenOption.APPEND);
+
+        // Act
+        List<AuditRecord> records = new AuditLogReader(directory).find(null, null, null);
+
+        // Assert
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).orderId());
+    }
+
+    private AuditProperties properties() {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory);
+        properties.setBufferSize(RECORDS);
+        return properties;
+    }
+
+    private static AuditSink start(AuditProperties properties) {
+        AuditSink sink = new AuditSink(properties);
+        sink.start();
+        return sink;
+    }
+
+    private static AuditRecord record(long orderId, Instant createdAt) {
+        return new AuditRecord(orderId, createdAt, "audit@example.com", 1250, 2,
+                List.of(new AuditRecord.Line(7, 2, 625)));
+    }
+}
@@ -0,0 +1,187 @@
+package com.hackaton1.resu.cache;
+
+import com.hackaton1.resu.config.ProductCacheProperties;
+import com.hackaton1.resu.dto.ProductStockRow;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductCacheProperties();
+        properties.setMaxSize(2);
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setStockTtl(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getShouldServeRepeatedReadsFromMemory() {
+        // Arrange
+        ProductCache cache = new ProductCache(productRepository, properties);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product(1L, 10)));
+
+        // Act
+        Optional<Product> first = cache.get(1L);
+        first.orElseThrow().setName("Changed by caller");
+        Optional<Product> second = cache.get(1L);
+
+        // Assert
+        assertEquals("Product 1", second.orElseThrow().getName()); // Callers get copies
+        verify(productRepository, times(1)).findAllByIdIn(anyCollection());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void getAllShouldEvictTheLeastRecentlyUsedProductBeyondTheMaximumSize() {
+        // Arrange
+        ProductCache cache = new ProductCache(productRepository, properties);
+        when(productRepository.findAllByIdIn(anyCollection())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream().map(id -> product(id, 10)).toList());
+
+        // Act
+        cache.getAll(List.of(1L, 2L));
+        cache.get(1L); // 2 is now the least recently used
+        Map<Long, Product> products = cache.getAll(List.of(3L, 1L));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), List.copyOf(products.keySet()));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getSize());
+        cache.get(2L);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    void invalidatedStockOfAnUnchangedProductShouldNotReloadTheProduct() {
+        // Arrange
+        ProductCache cache = new ProductCache(productRepository, properties);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product(1L, 10)));
+        when(productRepository.findStockByIdIn(List.of(1L))).thenReturn(List.of(new ProductStockRow(1L, 10, 0, 1L, Instant.now())));
+        cache.get(1L);
+
+        // Act
+        cache.invalidateStock(List.of(1L));
+        Product refreshed = cache.get(1L).orElseThrow();
+        Product cached = cache.get(1L).orElseThrow();
+
+        // Assert
+        assertEquals(10, refreshed.getAvailableStock());
+        assertEquals(10, cached.getAvailableStock());
+        assertEquals(1, cache.getStockRefreshCount());
+        verify(productRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void invalidatedStockOfAChangedProductShouldReloadTheWholeProduct() {
+        // Arrange
+        ProductCache cache = new ProductCache(productRepository, properties);
+        Product renamed = product(1L, 10);
+        renamed.setName("Renamed");
+        renamed.setReserved(3);
+        renamed.setVersion(2L);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product(1L, 10)), List.of(renamed));
+        when(productRepository.findStockByIdIn(List.of(1L))).thenReturn(List.of(new ProductStockRow(1L, 10, 3, 2L, Instant.now())));
+        cache.get(1L);
+
+        // Act
+        cache.invalidateStock(List.of(1L));
+        Product refreshed = cache.get(1L).orElseThrow();
+        Product cached = cache.get(1L).orElseThrow();
+
+        // Assert: the version served as the ETag matches the name and price
+        assertEquals("Renamed", refreshed.getName());
+        assertEquals(2L, refreshed.getVersion());
+        assertEquals(7, refreshed.getAvailableStock());
+        assertEquals("Renamed", cached.getName());
+        verify(productRepository, times(2)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void loadShouldNotReplaceANewerVersionPutMeanwhile() {
+        // Arrange
+        ProductCache cache = new ProductCache(productRepository, properties);
+        Product saved = product(1L, 10);
+        saved.setName("Saved");
+        saved.setVersion(3L);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenAnswer(invocation -> {
+            cache.put(saved); // A save commits while the older row is being loaded
+            return List.of(product(1L, 10));
+        });
+
+        // Act
+        Product loaded = cache.get(1L).orElseThrow();
+        Product cached = cache.get(1L).orElseThrow();
+
+        // Assert
+        assertEquals("Saved", loaded.getName());
+        assertEquals(3L, cached.getVersion());
+        verify(productRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void expiredProductsShouldBeReloaded() throws InterruptedException {
+        // Arrange
+        properties.setTtl(Duration.ofMillis(5));
+        ProductCache cache = new ProductCache(productRepository, properties);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product(1L, 10)));
+        cache.get(1L);
+
+        // Act
+        Thread.sleep(20);
+        cache.get(1L);
+
+        // Assert
+        assertEquals(1, cache.getExpirationCount());
+        verify(productRepository, times(2)).findAllByIdIn(anyCollection());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void freshAvailableStockShouldOnlyBeServedWithinTheStockTtl() throws InterruptedException {
+        // Arrange
+        properties.setStockTtl(Duration.ofMillis(50));
+        ProductCache cache = new ProductCache(productRepository, properties);
+        when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product(1L, 10)));
+
+        // Act & Assert
+        assertEquals(OptionalInt.empty(), cache.getFreshAvailableStock(1L)); // Not cached, nothing is loaded
+        cache.get(1L);
+        assertEquals(OptionalInt.of(10), cache.getFreshAvailableStock(1L));
+
+        Thread.sleep(100);
+        assertEquals(OptionalInt.empty(), cache.getFreshAvailableStock(1L));
+
+        cache.put(product(1L, 4));
+        cache.invalidateStock(List.of(1L));
+        assertEquals(OptionalInt.empty(), cache.getFreshAvailableStock(1L));
+        verify(productRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    private static Product product(Long id, int stock) {
+        return Product.builder().id(id).name("Product " + id).priceCents(500).stock(stock).version(1L).build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.hackaton1.resu.config;
+
+import com.hackaton1.resu.async.InstrumentedTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a notification backlog neither delays inventory updates nor blocks the relay.
+ */
+class ListenerExecutorIsolationTest {
+
+    private static final int EMAILS = 3000;
+    private static final long EMAIL_NANOS = Duration.ofMillis(20).toNanos();
+    private static final int INVENTORY_UPDATES = 500;
+    private static final long INVENTORY_NANOS = Duration.ofMillis(2).toNanos();
+
+    @Test
+    void inventoryLaneShouldStayFastWhileEmailLaneIsBackedUp() {
+        // Arrange
+        AsyncExecutorProperties properties = new AsyncExecutorProperties();
+        InstrumentedTaskExecutor inventory = AsyncConfig.threadPool("Inventory-", properties.getInventory(), task -> task);
+        InstrumentedTaskExecutor email = AsyncConfig.threadPool("Email-", properties.getEmail(), task -> task);
+
+        // Act
+        long[] latencies = driveInventoryDuringEmailBacklog(inventory, email);
+
+        // Assert
+        Arrays.sort(latencies);
+        long p99 = latencies[INVENTORY_UPDATES * 99 / 100];
+        System.out.printf("[DEBUG_LOG] Inventory p50 %.2f ms, p99 %.2f ms, max queue wait %d ms; "
+                        + "email shed %d, max queue wait %d ms%n",
+                latencies[INVENTORY_UPDATES / 2] / 1_000_000.0, p99 / 1_000_000.0,
+                inventory.getMaxQueueWait().toMillis(), email.getRejectedCount(), email.getMaxQueueWait().toMillis());
+        assertTrue(p99 < Duration.ofMillis(50).toNanos(), "Inventory p99 should stay under 50 ms");
+        assertTrue(email.getRejectedCount() > 0, "The email backlog should have been shed");
+        assertTrue(inventory.getMaxQueueWait().compareTo(email.getMaxQueueWait()) < 0);
+
+        inventory.shutdown();
+        email.getThreadPoolExecutor().shutdownNow();
+    }
+
+    private long[] driveInventoryDuringEmailBacklog(Executor inventory, Executor email) {
+        for (int i = 0; i < EMAILS; i++) {
+            try {
+                email.execute(() -> LockSupport.parkNanos(EMAIL_NANOS));
+            } catch (TaskRejectedException e) {
+                // Shed, as the relay does for best-effort listeners
+            }
+        }
+
+        long[] latencies = new long[INVENTORY_UPDATES];
+        CompletableFuture<?>[] updates = new CompletableFuture<?>[INVENTORY_UPDATES];
+        for (int i = 0; i < INVENTORY_UPDATES; i++) {
+            int index = i;
+            long submittedAt = System.nanoTime();
+            updates[i] = CompletableFuture.runAsync(() -> {
+                LockSupport.parkNanos(INVENTORY_NANOS);
+                latencies[index] = System.nanoTime() - submittedAt;
+            }, inventory);
+            LockSupport.parkNanos(INVENTORY_NANOS);
+        }
+        CompletableFuture.allOf(updates).join();
+        return latencies;
+    }
+}
@@ -0,0 +1,137 @@
+package com.hackaton1.resu.controller;
+
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        orderIds.clear();
+        Product product = productRepository.save(Product.builder().name("Paged Product").priceCents(500).stock(100).build());
+        productId = product.getId();
+        for (int i = 0; i < 5; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            items.add(OrderItem.builder().product(product).quantity(1).priceCents(product.getPriceCents()).build());
+            orderIds.add(orderRepository.save(Order.builder()
+                    .customerEmail("paged@example.com")
+                    .items(items)
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void getAllOrdersShouldReturnKeysetPages() throws Exception {
+        long cursor = orderIds.get(0) - 1;
+
+        MvcResult firstPage = mockMvc.perform(get("/orders").param("afterId", String.valueOf(cursor)).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(orderIds.get(0)))
+                .andExpect(jsonPath("$[0].items[0].productName").value("Paged Product"))
+                .andReturn();
+
+        String nextCursor = firstPage.getResponse().getHeader(OrderController.NEXT_CURSOR_HEADER);
+        assertEquals(String.valueOf(orderIds.get(2)), nextCursor);
+
+        mockMvc.perform(get("/orders").param("afterId", nextCursor).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(orderIds.get(3)))
+                .andExpect(jsonPath("$[1].id").value(orderIds.get(4)));
+    }
+
+    @Test
+    void streamAllOrdersShouldWriteOneOrderPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/orders/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(orderRepository.count(), lines.length);
+        for (String line : lines) {
+            assertNotNull(line);
+            assertEquals('{', line.charAt(0));
+        }
+    }
+
+    @Test
+    void createOrdersShouldReportEveryOrderOfTheBatch() throws Exception {
+        String body = "[{\"customerEmail\":\"batch@example.com\",\"items\":[{\"productId\":" + productId + ",\"quantity\":2}]},"
+                + "{\"customerEmail\":\"batch@example.com\",\"items\":[]}]";
+
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].total").value(10.0))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"));
+
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOrderShouldAnswerNotModifiedForCurrentETag() throws Exception {
+        String path = "/orders/" + orderIds.get(0);
+        MvcResult first = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, private"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        orderRepository.deleteById(orderIds.get(0));
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+    }
+}
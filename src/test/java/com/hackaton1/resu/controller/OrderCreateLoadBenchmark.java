@@ -0,0 +1,113 @@
+package com.hackaton1.resu.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives POST /orders over HTTP from concurrent clients and reports throughput and tail latency.
+ * Subclasses pick the thread mode of the server under test.
+ */
+abstract class OrderCreateLoadBenchmark {
+
+    private static final int PRODUCTS = 20;
+    private static final int CLIENTS = 32;
+    private static final int WARMUP = 100;
+    private static final int REQUESTS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void createOrdersUnderLoad() throws Exception {
+        // Arrange
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productRepository.save(Product.builder()
+                    .name("Load Product " + i)
+                    .priceCents(250)
+                    .stock(1_000_000)
+                    .build()).getId());
+        }
+        run(productIds, WARMUP);
+
+        // Act
+        long start = System.nanoTime();
+        long[] latencies = run(productIds, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Assert
+        Arrays.sort(latencies);
+        System.out.printf("[DEBUG_LOG] %s: %d orders by %d clients, %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                mode(), REQUESTS, CLIENTS, REQUESTS / seconds,
+                latencies[REQUESTS / 2] / 1_000_000.0,
+                latencies[REQUESTS * 99 / 100] / 1_000_000.0,
+                latencies[REQUESTS - 1] / 1_000_000.0);
+        assertEquals(REQUESTS, latencies.length);
+    }
+
+    /**
+     * @return a label for the thread mode of the server under test
+     */
+    abstract String mode();
+
+    private long[] run(List<Long> productIds, int requests) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Long>> results = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                Long productId = productIds.get(i % productIds.size());
+                results.add(clients.submit(() -> post(productId)));
+            }
+            long[] latencies = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                latencies[i] = results.get(i).get();
+            }
+            return latencies;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private long post(Long productId) throws Exception {
+        CreateOrderRequest order = CreateOrderRequest.builder()
+                .customerEmail("load@example.com")
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(productId, 1)))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(order)))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long latency = System.nanoTime() - start;
+        assertEquals(201, response.statusCode());
+        return latency;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hackaton1.resu.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * POST /orders load with Tomcat and the order listeners on platform thread pools.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadOrderCreateLoadTest extends OrderCreateLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "Platform threads";
+    }
+}
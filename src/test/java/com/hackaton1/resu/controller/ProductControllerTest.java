@@ -0,0 +1,117 @@
+package com.hackaton1.resu.controller;
+
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getProductShouldRevalidateWithETag() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Conditional Product").priceCents(700).stock(10).build());
+        String path = "/products/" + product.getId();
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        // Act & Assert: unchanged product
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Act & Assert: a write bumps the version and therefore the ETag
+        Product current = productService.getProductById(product.getId()).orElseThrow();
+        current.setStock(20);
+        productService.saveProduct(current);
+        String newETag = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void getAllProductsShouldAnswerNotModifiedWithoutLoadingProducts() throws Exception {
+        // Arrange
+        productRepository.save(Product.builder().name("Catalog Product").priceCents(300).stock(5).build());
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Assert
+        System.out.println("[DEBUG_LOG] Statements for a revalidated catalog page: " + statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getPrepareStatementCount()); // The catalog version aggregate only
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // A new product changes the catalog ETag
+        productRepository.save(Product.builder().name("Another Catalog Product").priceCents(400).stock(5).build());
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateProductShouldRejectStockBelowReservedUnits() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Reserved Product").priceCents(500).stock(10).build());
+        productRepository.reserveStock(Map.of(product.getId(), 4));
+        String path = "/products/" + product.getId();
+
+        // Act & Assert
+        mockMvc.perform(put(path).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reserved Product\",\"price\":5.00,\"stock\":3}"))
+                .andExpect(status().isConflict());
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+        mockMvc.perform(put(path).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reserved Product\",\"price\":5.00,\"stock\":4}"))
+                .andExpect(status().isOk());
+        assertEquals(4, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
@@ -0,0 +1,19 @@
+package com.hackaton1.resu.controller;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * POST /orders load with Tomcat and the order listeners on virtual threads (Java 21+ only).
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadOrderCreateLoadTest extends OrderCreateLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "Virtual threads";
+    }
+}
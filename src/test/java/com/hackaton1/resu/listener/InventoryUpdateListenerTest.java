@@ -4,7 +4,7 @@ import com.hackaton1.resu.event.OrderCreatedEvent;
 import com.hackaton1.resu.model.Order;
 import com.hackaton1.resu.model.OrderItem;
 import com.hackaton1.resu.model.Product;
-import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.service.InventoryBatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +14,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,13 +26,13 @@ import static org.mockito.Mockito.*;
 class InventoryUpdateListenerTest {
 
     @Mock
-    private ProductRepository productRepository;
+    private InventoryBatcher inventoryBatcher;
 
     private InventoryUpdateListener listener;
 
     @BeforeEach
     void setUp() {
-        listener = new InventoryUpdateListener(productRepository);
+        listener = new InventoryUpdateListener(inventoryBatcher);
     }
 
     @Test
@@ -41,14 +44,14 @@ class InventoryUpdateListenerTest {
         Product product1 = Product.builder()
                 .id(1L)
                 .name("Test Product 1")
-                .price(100.0)
+                .priceCents(10000)
                 .stock(10)
                 .build();
 
         Product product2 = Product.builder()
                 .id(2L)
                 .name("Test Product 2")
-                .price(200.0)
+                .priceCents(20000)
                 .stock(20)
                 .build();
 
@@ -61,13 +64,13 @@ class InventoryUpdateListenerTest {
         OrderItem orderItem1 = OrderItem.builder()
                 .product(product1)
                 .quantity(2)
-                .price(product1.getPrice())
+                .priceCents(product1.getPriceCents())
                 .build();
 
         OrderItem orderItem2 = OrderItem.builder()
                 .product(product2)
                 .quantity(3)
-                .price(product2.getPrice())
+                .priceCents(product2.getPriceCents())
                 .build();
 
         List<OrderItem> items = new ArrayList<>();
@@ -85,24 +88,19 @@ class InventoryUpdateListenerTest {
 
         OrderCreatedEvent event = new OrderCreatedEvent(this, order);
 
+        when(inventoryBatcher.submit(order))
+                .thenReturn(CompletableFuture.completedFuture(new InventoryBatcher.Outcome(false, Set.of())));
+
         // Act
         log.info("Calling handleOrderCreatedEvent");
         System.out.println("[DEBUG_LOG] Calling handleOrderCreatedEvent");
-        listener.handleOrderCreatedEvent(event);
+        CompletableFuture<Void> result = listener.handleOrderCreatedEvent(event);
 
         // Assert
-        log.info("Verifying product stocks after event handling");
-        System.out.println("[DEBUG_LOG] Verifying product stocks after event handling");
-        assertEquals(8, product1.getStock()); // 10 - 2 = 8
-        assertEquals(17, product2.getStock()); // 20 - 3 = 17
-
-        log.info("Product {} stock is now: {}", product1.getName(), product1.getStock());
-        log.info("Product {} stock is now: {}", product2.getName(), product2.getStock());
-        System.out.println("[DEBUG_LOG] Product " + product1.getName() + " stock is now: " + product1.getStock());
-        System.out.println("[DEBUG_LOG] Product " + product2.getName() + " stock is now: " + product2.getStock());
-
-        verify(productRepository, times(1)).save(product1);
-        verify(productRepository, times(1)).save(product2);
+        log.info("Verifying the order was handed to the inventory batcher");
+        System.out.println("[DEBUG_LOG] Verifying the order was handed to the inventory batcher");
+        verify(inventoryBatcher, times(1)).submit(order);
+        assertTrue(result.isDone() && !result.isCompletedExceptionally());
 
         log.info("Test completed successfully");
         System.out.println("[DEBUG_LOG] Test completed successfully");
@@ -117,7 +115,7 @@ class InventoryUpdateListenerTest {
         Product product = Product.builder()
                 .id(1L)
                 .name("Test Product")
-                .price(100.0)
+                .priceCents(10000)
                 .stock(1) // Only 1 in stock
                 .build();
 
@@ -127,7 +125,7 @@ class InventoryUpdateListenerTest {
         OrderItem orderItem = OrderItem.builder()
                 .product(product)
                 .quantity(2) // Trying to order 2
-                .price(product.getPrice())
+                .priceCents(product.getPriceCents())
                 .build();
 
         log.info("Created order item with quantity {} (more than available stock)", orderItem.getQuantity());
@@ -147,6 +145,9 @@ class InventoryUpdateListenerTest {
 
         OrderCreatedEvent event = new OrderCreatedEvent(this, order);
 
+        when(inventoryBatcher.submit(order)) // No reserved units left to deduct
+                .thenReturn(CompletableFuture.completedFuture(new InventoryBatcher.Outcome(false, Set.of(1L))));
+
         // Act
         log.info("Calling handleOrderCreatedEvent with insufficient stock");
         System.out.println("[DEBUG_LOG] Calling handleOrderCreatedEvent with insufficient stock");
@@ -160,9 +161,43 @@ class InventoryUpdateListenerTest {
         log.info("Product {} stock is still: {}", product.getName(), product.getStock());
         System.out.println("[DEBUG_LOG] Product " + product.getName() + " stock is still: " + product.getStock());
 
-        verify(productRepository, never()).save(product); // Product should not be saved
+        verify(inventoryBatcher, times(1)).submit(order);
 
         log.info("Test completed successfully");
         System.out.println("[DEBUG_LOG] Test completed successfully");
     }
+
+    @Test
+    void handleOrderCreatedEventShouldIgnoreRedeliveredEvent() {
+        // Arrange
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .priceCents(10000)
+                .stock(10)
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        items.add(OrderItem.builder()
+                .product(product)
+                .quantity(2)
+                .priceCents(product.getPriceCents())
+                .build());
+
+        Order order = Order.builder()
+                .id(1L)
+                .customerEmail("test@example.com")
+                .items(items)
+                .build();
+
+        when(inventoryBatcher.submit(order)) // Already applied by an earlier delivery
+                .thenReturn(CompletableFuture.completedFuture(new InventoryBatcher.Outcome(true, Set.of())));
+
+        // Act
+        CompletableFuture<Void> result = listener.handleOrderCreatedEvent(new OrderCreatedEvent(this, order));
+
+        // Assert
+        assertTrue(result.isDone() && !result.isCompletedExceptionally());
+        assertEquals(10, product.getStock());
+    }
 }
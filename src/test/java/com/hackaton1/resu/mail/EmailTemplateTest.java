@@ -0,0 +1,43 @@
+package com.hackaton1.resu.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailTemplateTest {
+
+    @Test
+    void renderShouldFillVariablesAndRepeatSections() {
+        EmailTemplate template = EmailTemplate.compile("Hello {{name}}!\n{{#lines}}- {{item}}\n{{/lines}}Bye");
+
+        String first = template.render(Map.of("name", "Ada", "lines", List.of(Map.of("item", "a"), Map.of("item", "b"))));
+        String second = template.render(Map.of("name", "Bob", "lines", List.of()));
+
+        assertEquals("Hello Ada!\n- a\n- b\nBye", first);
+        assertEquals("Hello Bob!\nBye", second); // The reused buffer does not leak the previous render
+    }
+
+    @Test
+    void compileShouldRejectMalformedTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("Hello {{name"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#lines}}never ended"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#a}}{{/b}}"));
+    }
+
+    @Test
+    void rateLimiterShouldGrantPermitsAtTheConfiguredRate() {
+        long[] now = {0};
+        RateLimiter limiter = new RateLimiter(10, () -> now[0]);
+
+        assertEquals(10, limiter.tryAcquire(50)); // One second's burst
+        assertEquals(0, limiter.tryAcquire(50));
+        now[0] += 500_000_000L;
+        assertEquals(5, limiter.tryAcquire(50));
+        limiter.release(3);
+        assertEquals(3, limiter.tryAcquire(50));
+    }
+}
@@ -0,0 +1,179 @@
+package com.hackaton1.resu.mail;
+
+import com.hackaton1.resu.config.MailQueueProperties;
+import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.listener.OrderCreatedListener;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.OutboundEmail;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OutboundEmailRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MailDispatcherTest {
+
+    private static StubSmtpServer smtp;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    // Proxied for @Async, so injected through its interface
+    @Autowired
+    @Qualifier("emailNotificationListener")
+    private OrderCreatedListener emailListener;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @BeforeAll
+    static void startMailServer() throws IOException {
+        smtp = new StubSmtpServer();
+    }
+
+    @AfterAll
+    static void stopMailServer() throws IOException {
+        smtp.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Emails queued by other tests' orders would otherwise be sent here too
+        outboundEmailRepository.deleteAll();
+        smtp.reset();
+    }
+
+    // Built by hand so the test shares the application context of the other tests
+    private MailDispatcher dispatcher(int ratePerSecond) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+        MailQueueProperties properties = new MailQueueProperties();
+        properties.setMaxAttempts(2);
+        properties.setInitialBackoff(Duration.ZERO);
+        properties.setRatePerSecond(ratePerSecond);
+        return new MailDispatcher(outboundEmailRepository, mailSender, properties);
+    }
+
+    private void enqueue(long orderId, String recipient) {
+        assertTrue(mailQueue.enqueue("test", orderId, recipient, new OrderEmailRenderer.RenderedEmail("Order " + orderId, "Body " + orderId)));
+    }
+
+    @Test
+    void dispatchShouldSendBatchOverOneConnectionAndRetryThenDeadLetterFailures() {
+        // Arrange
+        MailDispatcher mailDispatcher = dispatcher(1000);
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            enqueue(orderId, orderId == 3 ? "bounce@example.com" : "customer" + orderId + "@example.com");
+        }
+        smtp.reject("bounce@example.com");
+
+        // Act
+        mailDispatcher.dispatchPending();
+
+        // Assert
+        System.out.println("[DEBUG_LOG] Sent " + smtp.getMessages().size() + " emails over " + smtp.getConnectionCount() + " connections");
+        assertEquals(4, smtp.getMessages().size());
+        assertEquals(1, smtp.getConnectionCount());
+        assertTrue(smtp.getMessages().get(0).data().contains("Subject: Order "));
+        OutboundEmail bounced = outboundEmailRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals("bounce@example.com"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(OutboundEmail.Status.PENDING, bounced.getStatus());
+        assertEquals(1, bounced.getAttempts());
+        assertNotNull(bounced.getLastError());
+        assertEquals(4, outboundEmailRepository.countByStatus(OutboundEmail.Status.SENT));
+
+        // The second failure reaches the maximum number of attempts
+        mailDispatcher.dispatchPending();
+        OutboundEmail deadLetter = outboundEmailRepository.findById(bounced.getId()).orElseThrow();
+        assertEquals(OutboundEmail.Status.DEAD_LETTER, deadLetter.getStatus());
+        assertEquals(2, deadLetter.getAttempts());
+        assertEquals(4, smtp.getMessages().size());
+    }
+
+    @Test
+    void dispatchShouldKeepEmailsPendingWhenTheServerIsUnavailable() {
+        // Arrange
+        MailDispatcher mailDispatcher = dispatcher(1000);
+        enqueue(1, "customer@example.com");
+        smtp.setUnavailable(true);
+
+        // Act
+        mailDispatcher.dispatchPending();
+
+        // Assert
+        OutboundEmail email = outboundEmailRepository.findAll().get(0);
+        assertEquals(OutboundEmail.Status.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(smtp.getMessages().isEmpty());
+
+        // Sent once the server is back
+        smtp.setUnavailable(false);
+        mailDispatcher.dispatchPending();
+        assertEquals(OutboundEmail.Status.SENT, outboundEmailRepository.findById(email.getId()).orElseThrow().getStatus());
+        assertEquals(1, smtp.getMessages().size());
+    }
+
+    @Test
+    void dispatchShouldNotExceedTheRateLimit() {
+        // Arrange
+        MailDispatcher mailDispatcher = dispatcher(3);
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            enqueue(orderId, "customer" + orderId + "@example.com");
+        }
+
+        // Act
+        mailDispatcher.dispatchPending();
+
+        // Assert
+        assertEquals(3, smtp.getMessages().size());
+        assertEquals(3, mailDispatcher.getSentCount());
+        assertEquals(2, outboundEmailRepository.countByStatus(OutboundEmail.Status.PENDING));
+    }
+
+    @Test
+    void listenerShouldQueueEachOrderConfirmationOnce() {
+        // Arrange
+        Product product = Product.builder().id(1L).name("Mail Product").priceCents(250).build();
+        Order order = Order.builder()
+                .id(42L)
+                .customerEmail("mail@example.com")
+                .createdAt(LocalDateTime.now())
+                .build();
+        order.addItem(OrderItem.builder().product(product).quantity(2).priceCents(250).build());
+        OrderCreatedEvent event = new OrderCreatedEvent(this, order);
+
+        // Act
+        emailListener.handleOrderCreatedEvent(event).join();
+        emailListener.handleOrderCreatedEvent(event).join(); // Redelivery
+
+        // Assert
+        List<OutboundEmail> emails = outboundEmailRepository.findAll();
+        assertEquals(1, emails.size());
+        OutboundEmail email = emails.get(0);
+        assertEquals("Your Order #42 has been confirmed", email.getSubject());
+        assertEquals("mail@example.com", email.getRecipient());
+        assertTrue(email.getBody().contains("- 2 x Mail Product (2.50 each): $5.00"));
+        assertTrue(email.getBody().contains("Total: $5.00"));
+        assertFalse(mailQueue.enqueue(OrderEmailRenderer.ORDER_CONFIRMATION, 42L, "mail@example.com", new OrderEmailRenderer.RenderedEmail("s", "b")));
+    }
+}
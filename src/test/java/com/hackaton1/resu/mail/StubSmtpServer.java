@@ -0,0 +1,139 @@
+package com.hackaton1.resu.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local SMTP server standing in for the mail server in tests.
+ * Accepts every message except those addressed to rejected recipients, and can refuse connections altogether.
+ */
+class StubSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean unavailable;
+
+    StubSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        acceptor = new Thread(this::acceptLoop, "StubSmtpServer");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<Message> getMessages() {
+        return messages;
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    void reject(String recipient) {
+        rejectedRecipients.add(recipient);
+    }
+
+    void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    void reset() {
+        messages.clear();
+        rejectedRecipients.clear();
+        connections.set(0);
+        unavailable = false;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connections.incrementAndGet();
+                handle(socket);
+            } catch (IOException e) {
+                // Closed, or the client went away
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        if (unavailable) {
+            reply(out, "421 Service not available");
+            return;
+        }
+        reply(out, "220 stub ESMTP");
+
+        String from = null;
+        List<String> recipients = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.toUpperCase(Locale.ROOT);
+            if (command.startsWith("MAIL FROM:")) {
+                from = address(line);
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.startsWith("RCPT TO:")) {
+                String recipient = address(line);
+                if (rejectedRecipients.contains(recipient)) {
+                    reply(out, "550 Mailbox unavailable");
+                } else {
+                    recipients.add(recipient);
+                    reply(out, "250 OK");
+                }
+            } else if (command.equals("DATA")) {
+                reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                StringBuilder data = new StringBuilder();
+                while ((line = in.readLine()) != null && !line.equals(".")) {
+                    data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                }
+                messages.add(new Message(from, List.copyOf(recipients), data.toString()));
+                reply(out, "250 OK");
+            } else if (command.equals("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                // EHLO, HELO, RSET, NOOP
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void reply(Writer out, String reply) throws IOException {
+        out.write(reply + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    record Message(String from, List<String> recipients, String data) {
+    }
+}
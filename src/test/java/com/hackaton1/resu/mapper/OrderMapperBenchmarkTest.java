@@ -0,0 +1,132 @@
+package com.hackaton1.resu.mapper;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures query count and latency of {@link OrderMapper#toEntity} for orders of different sizes.
+ */
+@SpringBootTest
+class OrderMapperBenchmarkTest {
+
+    private static final int[] LINE_ITEM_COUNTS = {1, 50, 500};
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        productIds.clear();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            products.add(Product.builder()
+                    .name("Benchmark Product " + i)
+                    .priceCents(1000 + 100 * i)
+                    .stock(1000)
+                    .build());
+        }
+        productRepository.saveAll(products).forEach(product -> productIds.add(product.getId()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void toEntityShouldResolveAllProductsWithOneQuery() {
+        for (int lineItems : LINE_ITEM_COUNTS) {
+            CreateOrderRequest request = buildRequest(lineItems);
+
+            // Warm up
+            orderMapper.toEntity(request);
+
+            statistics.clear();
+            long start = System.nanoTime();
+            Order order = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                order = orderMapper.toEntity(request);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long queries = statistics.getPrepareStatementCount();
+
+            System.out.println("[DEBUG_LOG] toEntity with " + lineItems + " line items: "
+                    + (queries / ITERATIONS) + " queries/order, "
+                    + String.format("%.3f", elapsedNanos / 1_000_000.0 / ITERATIONS) + " ms/order");
+
+            assertEquals(lineItems, order.getItems().size());
+            // At most one query per order; none while the products are fresh in the product cache
+            assertTrue(queries <= ITERATIONS, "Expected at most one query per order, got " + queries);
+        }
+    }
+
+    @Test
+    void toEntityShouldMergeDuplicateProducts() {
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerEmail("test@example.com")
+                .items(List.of(
+                        new CreateOrderRequest.OrderItemRequest(productIds.get(0), 2),
+                        new CreateOrderRequest.OrderItemRequest(productIds.get(1), 1),
+                        new CreateOrderRequest.OrderItemRequest(productIds.get(0), 3)))
+                .build();
+
+        Order order = orderMapper.toEntity(request);
+
+        assertEquals(2, order.getItems().size());
+        assertEquals(productIds.get(0), order.getItems().get(0).getProduct().getId());
+        assertEquals(5, order.getItems().get(0).getQuantity());
+        assertEquals(1, order.getItems().get(1).getQuantity());
+    }
+
+    @Test
+    void toEntityShouldReportAllMissingProducts() {
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerEmail("test@example.com")
+                .items(List.of(
+                        new CreateOrderRequest.OrderItemRequest(-1L, 1),
+                        new CreateOrderRequest.OrderItemRequest(productIds.get(0), 1),
+                        new CreateOrderRequest.OrderItemRequest(-2L, 1)))
+                .build();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> orderMapper.toEntity(request));
+
+        assertTrue(e.getMessage().contains("[-1, -2]"));
+    }
+
+    private CreateOrderRequest buildRequest(int lineItems) {
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lineItems; i++) {
+            items.add(new CreateOrderRequest.OrderItemRequest(productIds.get(i), 1));
+        }
+        return CreateOrderRequest.builder()
+                .customerEmail("benchmark@example.com")
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.hackaton1.resu.metrics;
+
+import com.hackaton1.resu.config.AsyncConfig;
+import com.hackaton1.resu.controller.OrderController;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.service.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderPipelineMetricsTest {
+
+    private static final List<String> LISTENERS = List.of(
+            "InventoryUpdateListener", "CustomerSummaryListener", "EmailNotificationListener", "AuditLogListener");
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Test
+    void orderPipelineShouldRecordEveryStage() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Metered Product").priceCents(300).stock(10).build());
+        long mapped = stageTimer("map").count();
+        long saved = stageTimer("save").count();
+        double stockFailures = meterRegistry.get(OrderPipelineMetrics.STOCK_FAILURES).tag("stage", "create").counter().count();
+        long flushes = meterRegistry.get(OrderPipelineMetrics.INVENTORY_FLUSH).timer().count();
+
+        // Act
+        HttpStatusCode created = orderController.createOrder(order(product.getId(), 2)).getStatusCode();
+        HttpStatusCode rejected = orderController.createOrder(order(product.getId(), 100)).getStatusCode();
+        outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, created);
+        assertEquals(HttpStatus.CONFLICT, rejected);
+        assertEquals(mapped + 2, stageTimer("map").count());
+        assertEquals(saved + 2, stageTimer("save").count()); // The rejected order is timed too
+        assertEquals(stockFailures + 1, meterRegistry.get(OrderPipelineMetrics.STOCK_FAILURES).tag("stage", "create").counter().count());
+        assertTrue(meterRegistry.get(OrderPipelineMetrics.OUTBOX_LAG).timer().count() > 0);
+        assertTrue(meterRegistry.get(OrderPipelineMetrics.OUTBOX_DISPATCH).timer().count() > 0);
+        assertTrue(meterRegistry.get(OrderPipelineMetrics.INVENTORY_FLUSH).timer().count() > flushes);
+        for (String listener : LISTENERS) {
+            Timer latency = meterRegistry.get(OrderPipelineMetrics.LISTENER_LATENCY)
+                    .tag("listener", listener)
+                    .tag("outcome", "success")
+                    .timer();
+            System.out.println("[DEBUG_LOG] " + listener + ": " + latency.count() + " events, max "
+                    + latency.max(TimeUnit.MILLISECONDS) + " ms");
+            assertTrue(latency.count() > 0);
+        }
+    }
+
+    @Test
+    void componentCountersShouldBeBound() {
+        assertNotNull(meterRegistry.find("resu.executor.queue.wait").tag("name", AsyncConfig.INVENTORY_EXECUTOR).functionTimer());
+        assertNotNull(meterRegistry.find("resu.executor.rejected").tag("name", AsyncConfig.EMAIL_EXECUTOR).functionCounter());
+        assertNotNull(meterRegistry.find("resu.retry.conflicts").functionCounter());
+        assertNotNull(meterRegistry.find("resu.outbox.shed").functionCounter());
+        assertNotNull(meterRegistry.find("resu.inventory.flushes").functionCounter());
+        assertNotNull(meterRegistry.find("resu.product.cache.requests").tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("resu.audit.queue.depth").gauge());
+        assertNotNull(meterRegistry.find("resu.mail.sent").functionCounter());
+    }
+
+    private Timer stageTimer(String stage) {
+        return meterRegistry.get(OrderPipelineMetrics.ORDER_STAGE).tag("stage", stage).timer();
+    }
+
+    private static CreateOrderRequest order(long productId, int quantity) {
+        return CreateOrderRequest.builder()
+                .customerEmail("metrics@example.com")
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(productId, quantity)))
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackaton1.resu.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderTotalTest {
+
+    @Test
+    void totalShouldBeExactForManyCentAmounts() {
+        // Arrange: 1000 lines at 0.10, which sum to 99.99999999999859 in double arithmetic
+        Order order = new Order();
+        double doubleTotal = 0;
+        for (int i = 0; i < 1000; i++) {
+            order.addItem(OrderItem.builder().priceCents(10).quantity(1).build());
+            doubleTotal += 0.1;
+        }
+
+        // Act
+        order.prePersist();
+
+        // Assert
+        System.out.println("[DEBUG_LOG] double total: " + doubleTotal + ", fixed-point total: " + Money.toDecimal(order.getTotalCents()));
+        assertEquals(10_000, order.getTotalCents());
+        assertEquals(new BigDecimal("100.00"), Money.toDecimal(order.getTotalCents()));
+        assertEquals(1000, order.getItemCount());
+    }
+
+    @Test
+    void moneyShouldRoundDecimalAmountsToCents() {
+        assertEquals(1235, Money.toMinorUnits(new BigDecimal("12.345")));
+        assertEquals(1230, Money.toMinorUnits(new BigDecimal("12.3")));
+        assertEquals(new BigDecimal("0.07"), Money.toDecimal(7));
+    }
+
+    @Test
+    void subtotalShouldFailInsteadOfOverflowing() {
+        OrderItem item = OrderItem.builder().priceCents(Long.MAX_VALUE / 2).quantity(3).build();
+
+        assertThrows(ArithmeticException.class, item::getSubtotalCents);
+    }
+}
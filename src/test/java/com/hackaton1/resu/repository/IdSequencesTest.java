@@ -0,0 +1,47 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdSequencesTest {
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sequenceBehindExistingRowsShouldBeAdvancedPastThem() {
+        // Arrange: a row inserted without the sequence, as rows of a database that predates it
+        long legacyId = productRepository.save(Product.builder().name("Sequence Probe").priceCents(100).stock(1).build()).getId() + 1_000;
+        jdbcTemplate.update("INSERT INTO product (id, name, price, stock, reserved, version) VALUES (?, 'Legacy Product', 1.00, 1, 0, 0)", legacyId);
+
+        try {
+            // Act
+            List<String> advanced = idSequences.advancePastExistingIds();
+            List<String> advancedAgain = idSequences.advancePastExistingIds();
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR product_seq", Long.class);
+            System.out.println("[DEBUG_LOG] Advanced " + advanced + ", legacy ID " + legacyId + ", next sequence value " + next);
+
+            // Assert: the next block of 50 IDs starts above the legacy row, and a second run leaves the sequence alone
+            assertTrue(advanced.contains("product_seq"));
+            assertFalse(advancedAgain.contains("product_seq"));
+            assertTrue(next - 50 >= legacyId);
+        } finally {
+            jdbcTemplate.update("DELETE FROM product WHERE id = ?", legacyId);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures JDBC statements per order and insert throughput when saving orders of 1, 10 and 100 items.
+ */
+@SpringBootTest
+class OrderInsertBenchmarkTest {
+
+    private static final int[] ITEMS_PER_ORDER = {1, 10, 100};
+    private static final int ITEMS_PER_RUN = 2000;
+    private static final int ORDERS_PER_TRANSACTION = 10;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ordersShouldBeInsertedWithBatchedStatements() {
+        // Arrange
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(productRepository.save(Product.builder().name("Insert Product " + i).priceCents(100 + 100 * i).stock(1000).build()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        insert(products, 10, 10); // Warm up
+
+        for (int items : ITEMS_PER_ORDER) {
+            int orders = ITEMS_PER_RUN / items;
+
+            // Act
+            statistics.clear();
+            long start = System.nanoTime();
+            insert(products, items, orders);
+            long elapsedNanos = System.nanoTime() - start;
+
+            // Assert
+            double statementsPerOrder = (double) statistics.getPrepareStatementCount() / orders;
+            System.out.printf("[DEBUG_LOG] %3d items/order: %.2f statements/order, %.0f orders/s, %.0f items/s%n",
+                    items, statementsPerOrder, orders / (elapsedNanos / 1e9), orders * items / (elapsedNanos / 1e9));
+            // One round trip per batch of orders and of items instead of one per row
+            assertTrue(statementsPerOrder < 1 + items, "Expected batched inserts, got " + statementsPerOrder + " statements/order");
+        }
+    }
+
+    private void insert(List<Product> products, int items, int orders) {
+        for (int start = 0; start < orders; start += ORDERS_PER_TRANSACTION) {
+            int count = Math.min(ORDERS_PER_TRANSACTION, orders - start);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Order> batch = new ArrayList<>();
+                for (int o = 0; o < count; o++) {
+                    Order order = Order.builder().customerEmail("insert@example.com").build();
+                    for (int i = 0; i < items; i++) {
+                        Product product = products.get(i % products.size());
+                        order.addItem(OrderItem.builder().product(product).quantity(1).priceCents(product.getPriceCents()).build());
+                    }
+                    batch.add(order);
+                }
+                orderRepository.saveAll(batch);
+            });
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackaton1.resu.repository;
+
+import com.hackaton1.resu.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers {@link ProductRepository#reserveStock} and {@link ProductRepository#deductReservedStock}
+ * from many threads and checks that no update is lost and no product is oversold.
+ */
+@SpringBootTest
+class ProductRepositoryStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS = 4000;
+    private static final int HOT_STOCK = 2500;
+    private static final int COLD_STOCK = 100_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentReserveAndDeductShouldNeverLoseUpdatesOrOversell() throws InterruptedException {
+        // Arrange
+        Product hot = productRepository.save(Product.builder().name("Hot SKU").priceCents(1000).stock(HOT_STOCK).build());
+        Product cold = productRepository.save(Product.builder().name("Cold SKU").priceCents(500).stock(COLD_STOCK).build());
+
+        AtomicInteger hotSold = new AtomicInteger();
+        AtomicInteger hotRejected = new AtomicInteger();
+        AtomicInteger coldSold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        for (int i = 0; i < ORDERS; i++) {
+            executor.submit(() -> {
+                start.await();
+                List<Long> failed = productRepository.reserveStock(Map.of(hot.getId(), 1, cold.getId(), 2));
+                if (failed.contains(hot.getId())) {
+                    hotRejected.incrementAndGet();
+                } else {
+                    productRepository.deductReservedStock(Map.of(hot.getId(), 1));
+                    hotSold.incrementAndGet();
+                }
+                if (!failed.contains(cold.getId())) {
+                    productRepository.deductReservedStock(Map.of(cold.getId(), 2));
+                    coldSold.addAndGet(2);
+                }
+                return null;
+            });
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        // Assert
+        Product hotAfter = productRepository.findById(hot.getId()).orElseThrow();
+        Product coldAfter = productRepository.findById(cold.getId()).orElseThrow();
+        int hotStock = hotAfter.getStock();
+        int coldStock = coldAfter.getStock();
+
+        System.out.println("[DEBUG_LOG] " + ORDERS + " concurrent orders on " + THREADS + " threads in " + elapsedMillis
+                + " ms: hot sold " + hotSold.get() + ", rejected " + hotRejected.get() + ", remaining " + hotStock);
+
+        assertEquals(HOT_STOCK, hotSold.get());
+        assertEquals(ORDERS - HOT_STOCK, hotRejected.get());
+        assertEquals(0, hotStock);
+        assertEquals(ORDERS * 2, coldSold.get());
+        assertEquals(COLD_STOCK - ORDERS * 2, coldStock);
+        assertEquals(0, hotAfter.getReserved());
+        assertEquals(0, coldAfter.getReserved());
+    }
+}
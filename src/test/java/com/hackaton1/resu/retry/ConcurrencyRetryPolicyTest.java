@@ -0,0 +1,77 @@
+package com.hackaton1.resu.retry;
+
+import com.hackaton1.resu.config.RetryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyRetryPolicyTest {
+
+    private ConcurrencyRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+        retryPolicy = new ConcurrencyRetryPolicy(properties);
+    }
+
+    @Test
+    void executeShouldRetryUntilAttemptSucceeds() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = retryPolicy.execute("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Product", 1L);
+            }
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, retryPolicy.getConflictCount());
+        assertEquals(2, retryPolicy.getRetryCount());
+        assertEquals(0, retryPolicy.getExhaustedCount());
+    }
+
+    @Test
+    void executeShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retryPolicy.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Product", 1L);
+        }));
+        assertEquals(3, attempts.get());
+        assertEquals(3, retryPolicy.getConflictCount());
+        assertEquals(2, retryPolicy.getRetryCount());
+        assertEquals(1, retryPolicy.getExhaustedCount());
+    }
+
+    @Test
+    void executeShouldNotRetryOtherFailures() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> retryPolicy.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Not a conflict");
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0, retryPolicy.getConflictCount());
+    }
+}
@@ -0,0 +1,193 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.config.InventoryBatchProperties;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.metrics.OrderPipelineMetrics;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.retry.ConcurrencyRetryPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class InventoryBatcherTest {
+
+    @Autowired
+    private InventoryBatcher inventoryBatcher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConcurrencyRetryPolicy retryPolicy;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private OrderPipelineMetrics pipelineMetrics;
+
+    @Test
+    void hotProductUpdatesShouldBeCoalesced() throws Exception {
+        // Arrange
+        int orders = 200;
+        Product product = productRepository.save(Product.builder().name("Hot Product").priceCents(300).stock(10_000).build());
+        List<Order> created = createOrders(product, orders, 1);
+        long flushesBefore = inventoryBatcher.getFlushCount();
+
+        // Act
+        ExecutorService listeners = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<InventoryBatcher.Outcome>> outcomes = new ArrayList<>();
+        try {
+            for (Order order : created) {
+                outcomes.add(CompletableFuture.supplyAsync(() -> inventoryBatcher.submit(order), listeners)
+                        .thenCompose(outcome -> outcome));
+            }
+            CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            listeners.shutdown();
+        }
+
+        // Assert
+        long flushes = inventoryBatcher.getFlushCount() - flushesBefore;
+        // Per order: claim + deduct; per flush: lock + claim + one deduct per distinct product
+        System.out.println("[DEBUG_LOG] " + orders + " orders applied in " + flushes + " flushes: "
+                + (flushes * 3) + " write statements instead of " + (orders * 2));
+        assertTrue(flushes * 10 <= orders, "Expected at least 10 orders per flush, got " + flushes + " flushes");
+        outcomes.forEach(outcome -> assertEquals(new InventoryBatcher.Outcome(false, Set.of()), outcome.join()));
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(10_000 - orders, after.getStock());
+        assertEquals(0, after.getReserved());
+    }
+
+    @Test
+    void shortStockShouldBeAttributedToTheOrdersThatCannotBeCovered() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Short Product").priceCents(300).stock(10).build());
+        List<Order> created = createOrders(product, 3, 2);
+        // Lose two reserved units, so only the first two orders can still be covered
+        jdbcTemplate.update("UPDATE product SET reserved = 4 WHERE id = ?", product.getId());
+
+        // Act
+        List<CompletableFuture<InventoryBatcher.Outcome>> outcomes = created.stream()
+                .map(inventoryBatcher::submit)
+                .toList();
+        inventoryBatcher.flush();
+
+        // Assert
+        assertEquals(Set.of(), outcomes.get(0).join().failedProductIds());
+        assertEquals(Set.of(), outcomes.get(1).join().failedProductIds());
+        assertEquals(Set.of(product.getId()), outcomes.get(2).join().failedProductIds());
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(6, after.getStock());
+        assertEquals(0, after.getReserved());
+        assertTrue(orderRepository.findById(created.get(0).getId()).orElseThrow().isInventoryApplied());
+        assertTrue(orderRepository.findById(created.get(1).getId()).orElseThrow().isInventoryApplied());
+        assertFalse(orderRepository.findById(created.get(2).getId()).orElseThrow().isInventoryApplied());
+
+        // A redelivered order is not applied twice
+        assertTrue(inventoryBatcher.submit(created.get(0)).join().alreadyApplied());
+    }
+
+    @Test
+    void shortOrderShouldDeductNothingAndKeepItsReservation() {
+        // Arrange
+        Product covered = productRepository.save(Product.builder().name("Covered Product").priceCents(300).stock(10).build());
+        Product lost = productRepository.save(Product.builder().name("Lost Product").priceCents(300).stock(10).build());
+        Order order = orderRepository.findAllWithItemsByIdIn(List.of(orderService.createOrder(orderMapper.toEntity(CreateOrderRequest.builder()
+                .customerEmail("batch@example.com")
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(covered.getId(), 2),
+                        new CreateOrderRequest.OrderItemRequest(lost.getId(), 3)))
+                .build())).getId())).get(0);
+        // Lose the reserved units of one line, so the order cannot be covered
+        jdbcTemplate.update("UPDATE product SET reserved = 0 WHERE id = ?", lost.getId());
+
+        // Act
+        CompletableFuture<InventoryBatcher.Outcome> outcome = inventoryBatcher.submit(order);
+        inventoryBatcher.flush();
+
+        // Assert: the covered line is not deducted either, so the order can be applied as a whole later
+        assertEquals(Set.of(lost.getId()), outcome.join().failedProductIds());
+        Product coveredAfter = productRepository.findById(covered.getId()).orElseThrow();
+        assertEquals(10, coveredAfter.getStock());
+        assertEquals(2, coveredAfter.getReserved());
+        assertEquals(10, productRepository.findById(lost.getId()).orElseThrow().getStock());
+        assertFalse(orderRepository.findById(order.getId()).orElseThrow().isInventoryApplied());
+    }
+
+    @Test
+    void timerShouldFlushWhenTheLaneExecutorRejects() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Rejected Lane Product").priceCents(300).stock(10).build());
+        Order order = createOrders(product, 1, 1).get(0);
+        InventoryBatchProperties properties = new InventoryBatchProperties();
+        properties.setWindow(Duration.ofMillis(10));
+        properties.setMaxSize(1);
+        InventoryBatcher batcher = new InventoryBatcher(productRepository, orderRepository, retryPolicy, transactionTemplate,
+                properties, task -> {
+                    throw new RejectedExecutionException("Lane saturated");
+                }, productCache, pipelineMetrics);
+
+        try {
+            // Act
+            InventoryBatcher.Outcome outcome = batcher.submit(order).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(new InventoryBatcher.Outcome(false, Set.of()), outcome);
+            assertEquals(9, productRepository.findById(product.getId()).orElseThrow().getStock());
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    private List<Order> createOrders(Product product, int count, int quantity) {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = orderMapper.toEntity(CreateOrderRequest.builder()
+                    .customerEmail("batch@example.com")
+                    .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), quantity)))
+                    .build());
+            orderIds.add(orderService.createOrder(order).getId());
+        }
+        List<Order> orders = new ArrayList<>(orderRepository.findAllWithItemsByIdIn(orderIds));
+        orders.sort((a, b) -> a.getId().compareTo(b.getId()));
+        return orders;
+    }
+}
@@ -0,0 +1,211 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.config.OrderBatchProperties;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.OrderBatchResultDTO;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class OrderBatchServiceTest {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderBatchProperties properties;
+
+    @Test
+    void createOrdersShouldReportEachOrderOnItsOwn() {
+        // Arrange
+        Product plenty = productRepository.save(Product.builder().name("Batch Plenty").priceCents(400).stock(100).build());
+        Product scarce = productRepository.save(Product.builder().name("Batch Scarce").priceCents(900).stock(3).build());
+        List<CreateOrderRequest> requests = List.of(
+                order("first@example.com", plenty.getId(), 2),
+                order("not-an-email", plenty.getId(), 1),
+                order("second@example.com", scarce.getId(), 2),
+                order("third@example.com", scarce.getId(), 2), // Only 1 unit left after the previous order
+                order("fourth@example.com", -1L, 1),
+                order("fifth@example.com", plenty.getId(), 0));
+        long eventsBefore = outboxEventRepository.count();
+
+        // Act
+        OrderBatchResultDTO result = orderBatchService.createOrders(requests);
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getRejected());
+        List<OrderBatchResultDTO.Entry> entries = result.getResults();
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(0).getStatus());
+        assertEquals(new BigDecimal("8.00"), entries.get(0).getTotal());
+        assertEquals(OrderBatchResultDTO.Status.INVALID, entries.get(1).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(2).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.INSUFFICIENT_STOCK, entries.get(3).getStatus());
+        assertEquals(List.of(scarce.getId()), entries.get(3).getProductIds());
+        assertEquals(OrderBatchResultDTO.Status.INVALID, entries.get(4).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.INVALID, entries.get(5).getStatus());
+        assertEquals("items[0].quantity: Quantity must be at least 1", entries.get(5).getError());
+
+        assertNotNull(orderRepository.findById(entries.get(0).getOrderId()).orElse(null));
+        assertEquals(2, productRepository.findById(plenty.getId()).orElseThrow().getReserved());
+        assertEquals(2, productRepository.findById(scarce.getId()).orElseThrow().getReserved());
+        assertEquals(eventsBefore + 2, outboxEventRepository.count());
+    }
+
+    @Test
+    void createOrdersShouldHandleTenThousandOrders() {
+        // Arrange
+        int orders = 10_000;
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            productIds.add(productRepository.save(Product.builder().name("Bulk Product " + i).priceCents(150).stock(1_000).build()).getId());
+        }
+        List<CreateOrderRequest> requests = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            requests.add(CreateOrderRequest.builder()
+                    .customerEmail("bulk" + (i % 100) + "@example.com")
+                    .items(List.of(
+                            new CreateOrderRequest.OrderItemRequest(productIds.get(i % 50), 1),
+                            new CreateOrderRequest.OrderItemRequest(productIds.get((i + 1) % 50), 2)))
+                    .build());
+        }
+
+        // Act
+        long start = System.nanoTime();
+        OrderBatchResultDTO result = orderBatchService.createOrders(requests);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[DEBUG_LOG] Created " + result.getCreated() + " orders in " + elapsedMillis + " ms ("
+                + (result.getCreated() * 1000L / Math.max(1, elapsedMillis)) + " orders/s)");
+
+        // Assert
+        assertEquals(orders, result.getCreated());
+        for (Long productId : productIds) {
+            assertEquals(600, productRepository.findById(productId).orElseThrow().getReserved());
+        }
+
+        // Keep relay tests sharing this database from draining ten thousand events
+        jdbcTemplate.update("UPDATE outbox_event SET processed_at = CURRENT_TIMESTAMP WHERE processed_at IS NULL");
+    }
+
+    @Test
+    void createOrdersShouldRereadStockAfterChunkFallback() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Batch Fallback").priceCents(100).stock(10).build());
+        productService.getProductsByIds(List.of(product.getId())); // Cache the product with 10 units
+        jdbcTemplate.update("UPDATE product SET stock = 7 WHERE id = ?", product.getId()); // Behind the cache's back
+        List<CreateOrderRequest> requests = List.of(
+                order("fallback-a@example.com", product.getId(), 5),
+                order("fallback-b@example.com", product.getId(), 5), // Rejected, the real stock only covers one
+                order("fallback-c@example.com", product.getId(), 2)); // In the next chunk, fits the 2 units left
+        int chunkSize = properties.getChunkSize();
+        properties.setChunkSize(2);
+
+        // Act
+        OrderBatchResultDTO result;
+        try {
+            result = orderBatchService.createOrders(requests);
+        } finally {
+            properties.setChunkSize(chunkSize);
+        }
+
+        // Assert
+        List<OrderBatchResultDTO.Entry> entries = result.getResults();
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(0).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.INSUFFICIENT_STOCK, entries.get(1).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(2).getStatus());
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getReserved());
+    }
+
+    @Test
+    void createOrdersShouldReserveWhenCachedStockLooksShort() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Batch Restocked").priceCents(100).stock(1).build());
+        productService.getProductsByIds(List.of(product.getId())); // Cache the product with 1 unit
+        jdbcTemplate.update("UPDATE product SET stock = 10 WHERE id = ?", product.getId()); // Restocked behind the cache's back
+        List<CreateOrderRequest> requests = List.of(
+                order("restocked-a@example.com", product.getId(), 1),
+                order("restocked-b@example.com", product.getId(), 4),
+                order("restocked-c@example.com", product.getId(), 6)); // Only 5 units left after the others
+
+        // Act
+        OrderBatchResultDTO result = orderBatchService.createOrders(requests);
+
+        // Assert
+        List<OrderBatchResultDTO.Entry> entries = result.getResults();
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(0).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(1).getStatus());
+        assertEquals(OrderBatchResultDTO.Status.INSUFFICIENT_STOCK, entries.get(2).getStatus());
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getReserved());
+    }
+
+    @Test
+    void createOrdersShouldReportCommittedChunksWhenALaterChunkFails() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Batch Broken Chunk").priceCents(100).stock(20).build());
+        // A valid address too long for the column, so the insert of the second chunk fails
+        String tooLong = "broken".repeat(10) + "@" + "a".repeat(60) + "." + "b".repeat(60) + "." + "c".repeat(60) + "." + "d".repeat(60) + ".com";
+        List<CreateOrderRequest> requests = List.of(
+                order("broken-a@example.com", product.getId(), 1),
+                order("broken-b@example.com", product.getId(), 2),
+                order("broken-c@example.com", product.getId(), 3),
+                order(tooLong, product.getId(), 4),
+                order("broken-e@example.com", product.getId(), 5));
+        int chunkSize = properties.getChunkSize();
+        properties.setChunkSize(2);
+
+        // Act
+        OrderBatchResultDTO result;
+        try {
+            result = orderBatchService.createOrders(requests);
+        } finally {
+            properties.setChunkSize(chunkSize);
+        }
+
+        // Assert: the first chunk stays created and is reported, everything after it can be resent
+        List<OrderBatchResultDTO.Entry> entries = result.getResults();
+        assertEquals(2, result.getCreated());
+        assertEquals(OrderBatchResultDTO.Status.CREATED, entries.get(0).getStatus());
+        assertNotNull(orderRepository.findById(entries.get(1).getOrderId()).orElse(null));
+        for (int i = 2; i < requests.size(); i++) {
+            assertEquals(OrderBatchResultDTO.Status.FAILED, entries.get(i).getStatus());
+            assertNull(entries.get(i).getOrderId());
+        }
+        assertEquals(3, productRepository.findById(product.getId()).orElseThrow().getReserved());
+    }
+
+    private static CreateOrderRequest order(String email, Long productId, int quantity) {
+        return CreateOrderRequest.builder()
+                .customerEmail(email)
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(productId, quantity)))
+                .build();
+    }
+}
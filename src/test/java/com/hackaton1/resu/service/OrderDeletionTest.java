@@ -0,0 +1,100 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.CustomerSummaryDTO;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderDeletionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void deleteOrderShouldReleaseReservationAndDropPendingEvent() {
+        // Arrange
+        String email = "delete-pending@example.com";
+        Product product = productRepository.save(Product.builder().name("Delete Pending Product").priceCents(200).stock(10).build());
+        Order order = createOrder(email, product, 4);
+        assertEquals(4, productRepository.findById(product.getId()).orElseThrow().getReserved());
+
+        // Act
+        orderService.deleteOrder(order.getId());
+        outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertFalse(orderRepository.existsById(order.getId()));
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(10, after.getStock());
+        assertEquals(0, after.getReserved());
+        assertTrue(outboxEventRepository.findAll().stream().noneMatch(event -> event.getAggregateId().equals(order.getId())));
+        assertEquals(0, orderQueryService.getCustomerSummary(email).getOrderCount());
+    }
+
+    @Test
+    void deleteOrderShouldRemoveCountedOrderFromSummary() {
+        // Arrange
+        String email = "delete-counted@example.com";
+        Product product = productRepository.save(Product.builder().name("Delete Counted Product").priceCents(300).stock(10).build());
+        Order first = createOrder(email, product, 1);
+        Order second = createOrder(email, product, 2);
+        outboxRelay.relayPendingEvents();
+        assertEquals(2, orderQueryService.getCustomerSummary(email).getOrderCount());
+
+        // Act
+        orderService.deleteOrder(second.getId());
+
+        // Assert
+        CustomerSummaryDTO summary = orderQueryService.getCustomerSummary(email);
+        System.out.println("[DEBUG_LOG] Summary after deletion: " + summary);
+        assertEquals(1, summary.getOrderCount());
+        assertEquals(new BigDecimal("3.00"), summary.getLifetimeTotal());
+        assertEquals(orderRepository.findById(first.getId()).orElseThrow().getCreatedAt(), summary.getLastOrderDate());
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(7, after.getStock()); // Deducted stock is not restored
+        assertEquals(0, after.getReserved());
+
+        orderService.deleteOrder(first.getId());
+        assertEquals(0, orderQueryService.getCustomerSummary(email).getOrderCount());
+    }
+
+    private Order createOrder(String email, Product product, int quantity) {
+        return orderService.createOrder(orderMapper.toEntity(CreateOrderRequest.builder()
+                .customerEmail(email)
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), quantity)))
+                .build()));
+    }
+}
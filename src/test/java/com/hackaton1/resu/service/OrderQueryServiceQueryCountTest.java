@@ -0,0 +1,123 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the order read paths issue a constant number of statements regardless of how many
+ * orders, items and products they return.
+ */
+@SpringBootTest
+class OrderQueryServiceQueryCountTest {
+
+    // Page IDs, order rows and item rows
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Product> products = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        products.clear();
+        for (int i = 0; i < 5; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .name("Query Count Product " + i)
+                    .priceCents(1000 + 100 * i)
+                    .stock(1000)
+                    .build()));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getOrdersPageShouldUseConstantStatementCount(int orders) {
+        // Arrange
+        List<Long> ids = createOrders("query-count-page-" + orders + "@example.com", orders);
+
+        // Act
+        long statements = countStatements(() -> orderQueryService.getOrdersPage(ids.get(0) - 1, orders), orders);
+
+        // Assert
+        System.out.println("[DEBUG_LOG] getOrdersPage statements for " + orders + " orders: " + statements);
+        assertEquals(STATEMENTS_PER_PAGE, statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getOrdersByCustomerPageShouldUseConstantStatementCount(int orders) {
+        // Arrange
+        String email = "query-count-customer-" + orders + "@example.com";
+        createOrders(email, orders);
+
+        // Act
+        long statements = countStatements(() -> orderQueryService.getOrdersByCustomerPage(email, 0, orders), orders);
+
+        // Assert
+        System.out.println("[DEBUG_LOG] getOrdersByCustomerPage statements for " + orders + " orders: " + statements);
+        assertEquals(STATEMENTS_PER_PAGE, statements);
+    }
+
+    /**
+     * Count the statements of a read, including any triggered while reading the items of the result.
+     */
+    private long countStatements(Supplier<List<OrderDTO>> read, int expectedOrders) {
+        statistics.clear();
+        List<OrderDTO> dtos = read.get();
+        dtos.forEach(dto -> dto.getItems().forEach(item -> item.getProductName().length()));
+        assertEquals(expectedOrders, dtos.size());
+        dtos.forEach(dto -> assertEquals(products.size(), dto.getItems().size()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> createOrders(String email, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (Product product : products) {
+                items.add(OrderItem.builder()
+                        .product(product)
+                        .quantity(1)
+                        .priceCents(product.getPriceCents())
+                        .build());
+            }
+            ids.add(orderRepository.save(Order.builder()
+                    .customerEmail(email)
+                    .items(items)
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
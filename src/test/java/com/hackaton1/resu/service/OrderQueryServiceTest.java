@@ -0,0 +1,222 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.CustomerSummaryDTO;
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OutboxEvent;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class OrderQueryServiceTest {
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerOrderSummaryRepository customerOrderSummaryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void customerSummaryShouldBeMaintainedFromOrderEvents() {
+        // Arrange
+        String email = "summary@example.com";
+        Product product = productRepository.save(Product.builder().name("Summary Product").priceCents(1250).stock(100).build());
+        List<Long> orderIds = new ArrayList<>();
+        for (int quantity = 1; quantity <= 3; quantity++) {
+            orderIds.add(createOrder(email, product, quantity).getId());
+        }
+        assertEquals(0, orderQueryService.getCustomerSummary(email).getOrderCount());
+
+        // Act
+        outboxRelay.relayPendingEvents();
+
+        // Redeliver every event, as after a crash before the outbox was updated
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> orderIds.contains(event.getAggregateId()))
+                .toList();
+        events.forEach(event -> event.setProcessedAt(null));
+        outboxEventRepository.saveAll(events);
+        outboxRelay.relayPendingEvents();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        CustomerSummaryDTO summary = orderQueryService.getCustomerSummary(email);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount()); // Primary key lookup on the aggregate only
+        assertEquals(3, summary.getOrderCount());
+        assertEquals(new BigDecimal("75.00"), summary.getLifetimeTotal()); // 12.5 * (1 + 2 + 3)
+        assertNotNull(summary.getLastOrderDate());
+    }
+
+    @Test
+    void customerSummaryShouldBeEmptyForUnknownCustomer() {
+        CustomerSummaryDTO summary = orderQueryService.getCustomerSummary("nobody@example.com");
+
+        assertEquals(0, summary.getOrderCount());
+        assertEquals(new BigDecimal("0.00"), summary.getLifetimeTotal());
+        assertNull(summary.getLastOrderDate());
+    }
+
+    @Test
+    void getOrdersByCustomerPageShouldOnlyReturnThatCustomer() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Paged Customer Product").priceCents(100).stock(100).build());
+        Order first = createOrder("paged-customer@example.com", product, 1);
+        createOrder("other-customer@example.com", product, 1);
+        Order second = createOrder("paged-customer@example.com", product, 2);
+
+        // Act
+        List<OrderDTO> firstPage = orderQueryService.getOrdersByCustomerPage("paged-customer@example.com", 0, 1);
+        List<OrderDTO> secondPage = orderQueryService.getOrdersByCustomerPage("paged-customer@example.com", first.getId(), 10);
+
+        // Assert
+        assertEquals(List.of(first.getId()), firstPage.stream().map(OrderDTO::getId).toList());
+        assertEquals(List.of(second.getId()), secondPage.stream().map(OrderDTO::getId).toList());
+        assertEquals(new BigDecimal("2.00"), secondPage.get(0).getTotal());
+    }
+
+    @Test
+    void orderTotalsShouldBeStoredAndReadWithoutItems() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Stored Total Product").priceCents(250).stock(100).build());
+        Order order = createOrder("stored-total@example.com", product, 4);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        List<OrderDTO> orders = orderRepository.findOrderDTOsByIdIn(List.of(order.getId()));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount()); // Neither the order nor its items are hydrated
+        assertEquals(new BigDecimal("10.00"), orders.get(0).getTotal());
+        assertEquals(4, orders.get(0).getItemCount());
+        assertEquals(new BigDecimal("10.00"), jdbcTemplate.queryForObject("SELECT total FROM orders WHERE id = ?", BigDecimal.class, order.getId()));
+    }
+
+    @Test
+    void backfillTotalsShouldComputeMissingTotalsFromItems() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Backfill Product").priceCents(300).stock(100).build());
+        Order order = createOrder("backfill@example.com", product, 5);
+        jdbcTemplate.update("UPDATE orders SET total = NULL, item_count = NULL WHERE id = ?", order.getId());
+
+        // Act
+        int backfilled = orderRepository.backfillTotals();
+
+        // Assert
+        System.out.println("[DEBUG_LOG] Backfilled totals of " + backfilled + " orders");
+        assertEquals(1, backfilled);
+        OrderDTO dto = orderRepository.findOrderDTOsByIdIn(List.of(order.getId())).get(0);
+        assertEquals(new BigDecimal("15.00"), dto.getTotal());
+        assertEquals(5, dto.getItemCount());
+    }
+
+    @Test
+    void orderItemsShouldKeepProductNameAfterRename() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Original Name").priceCents(100).stock(100).build());
+        Order order = createOrder("rename@example.com", product, 1);
+        product = productRepository.findById(product.getId()).orElseThrow();
+        product.setName("Renamed Product");
+        productRepository.save(product);
+
+        // Act
+        OrderDTO dto = orderQueryService.getOrderById(order.getId()).orElseThrow();
+
+        // Assert
+        assertEquals("Original Name", dto.getItems().get(0).getProductName());
+    }
+
+    @Test
+    void backfillItemProductNamesShouldFillMissingNames() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Legacy Item Product").priceCents(100).stock(100).build());
+        Order order = createOrder("legacy-item@example.com", product, 1);
+        jdbcTemplate.update("UPDATE order_item SET product_name = NULL WHERE order_id = ?", order.getId());
+
+        // Act
+        int backfilled = orderRepository.backfillItemProductNames();
+
+        // Assert
+        assertEquals(1, backfilled);
+        OrderDTO dto = orderQueryService.getOrderById(order.getId()).orElseThrow();
+        assertEquals("Legacy Item Product", dto.getItems().get(0).getProductName());
+    }
+
+    @Test
+    void backfillUnappliedOrdersShouldCountOrdersOnce() {
+        // Arrange
+        String email = "legacy-summary@example.com";
+        Product product = productRepository.save(Product.builder().name("Legacy Summary Product").priceCents(400).stock(100).build());
+        createOrder(email, product, 1);
+        createOrder(email, product, 2);
+
+        // Act
+        int backfilled = customerOrderSummaryRepository.backfillUnappliedOrders();
+        outboxRelay.relayPendingEvents(); // The events of the backfilled orders must not count them again
+
+        // Assert
+        System.out.println("[DEBUG_LOG] Backfilled " + backfilled + " orders into the customer summaries");
+        CustomerSummaryDTO summary = orderQueryService.getCustomerSummary(email);
+        assertEquals(2, summary.getOrderCount());
+        assertEquals(new BigDecimal("12.00"), summary.getLifetimeTotal());
+        assertEquals(0, customerOrderSummaryRepository.backfillUnappliedOrders());
+    }
+
+    private Order createOrder(String email, Product product, int quantity) {
+        Order order = orderMapper.toEntity(CreateOrderRequest.builder()
+                .customerEmail(email)
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), quantity)))
+                .build());
+        return orderService.createOrder(order);
+    }
+}
@@ -0,0 +1,109 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares allocation and latency of the projection read path against hydrating the orders with their items
+ * and products.
+ */
+@SpringBootTest
+class OrderReadPathBenchmarkTest {
+
+    private static final int ORDERS = 100;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void projectionPathShouldMatchEntityPath() {
+        // Arrange
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .name("Read Path Product " + i)
+                    .priceCents(950 + 100 * i)
+                    .stock(1000)
+                    .build()));
+        }
+        long firstId = Long.MAX_VALUE;
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (Product product : products) {
+                items.add(OrderItem.builder().product(product).quantity(1 + i % 3).priceCents(product.getPriceCents()).build());
+            }
+            Order order = orderRepository.save(Order.builder().customerEmail("read-path@example.com").items(items).build());
+            firstId = Math.min(firstId, order.getId());
+        }
+        long afterId = firstId - 1;
+
+        Supplier<List<OrderDTO>> entityPath = () -> orderRepository.findAllWithItemsByIdIn(
+                        orderRepository.findIdsAfter(afterId, Limit.of(ORDERS))).stream()
+                .sorted(Comparator.comparing(Order::getId))
+                .map(orderMapper::toDTO)
+                .toList();
+        Supplier<List<OrderDTO>> projectionPath = () -> orderQueryService.getOrdersPage(afterId, ORDERS);
+
+        // Act
+        String entity = measure(entityPath);
+        String projection = measure(projectionPath);
+        System.out.println("[DEBUG_LOG] Entity path:     " + entity);
+        System.out.println("[DEBUG_LOG] Projection path: " + projection);
+
+        // Assert
+        assertEquals(entityPath.get(), projectionPath.get());
+    }
+
+    private String measure(Supplier<List<OrderDTO>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] latencies = new long[ITERATIONS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            read.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(latencies);
+        return String.format("%d KB allocated/read, p50 %.3f ms, p99 %.3f ms",
+                allocated / ITERATIONS / 1024,
+                latencies[ITERATIONS / 2] / 1_000_000.0,
+                latencies[ITERATIONS * 99 / 100] / 1_000_000.0);
+    }
+}
@@ -1,24 +1,37 @@
 package com.hackaton1.resu.service;
 
-import com.hackaton1.resu.event.OrderCreatedEvent;
+import com.hackaton1.resu.cache.ProductCache;
+import com.hackaton1.resu.config.TracingProperties;
+import com.hackaton1.resu.exception.InsufficientStockException;
 import com.hackaton1.resu.model.Order;
 import com.hackaton1.resu.model.OrderItem;
+import com.hackaton1.resu.model.OutboxEvent;
 import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.CustomerOrderSummaryRepository;
 import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.tracing.SpanStore;
+import com.hackaton1.resu.tracing.Tracer;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,31 +41,44 @@ class OrderServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ProductRepository productRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CustomerOrderSummaryRepository customerOrderSummaryRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductCache productCache;
 
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
-        orderService = new OrderService(orderRepository, eventPublisher);
+        orderService = new OrderService(orderRepository, productRepository, outboxEventRepository, customerOrderSummaryRepository,
+                entityManager, productCache, new Tracer(new SpanStore(new TracingProperties())));
     }
 
     @Test
-    void createOrderShouldSaveOrderAndPublishEvent() {
+    void createOrderShouldSaveOrderAndRecordOutboxEvent() {
         // Arrange
         String customerEmail = "test@example.com";
         
         Product product = Product.builder()
                 .id(1L)
                 .name("Test Product")
-                .price(100.0)
+                .priceCents(10000)
                 .stock(10)
                 .build();
         
         OrderItem orderItem = OrderItem.builder()
                 .product(product)
                 .quantity(2)
-                .price(product.getPrice())
+                .priceCents(product.getPriceCents())
                 .build();
         
         List<OrderItem> items = new ArrayList<>();
@@ -69,6 +95,7 @@ class OrderServiceTest {
                 .items(items)
                 .build();
         
+        when(productRepository.reserveStock(anyMap())).thenReturn(List.of());
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
         
         // Act
@@ -80,13 +107,119 @@ class OrderServiceTest {
         assertEquals(customerEmail, result.getCustomerEmail());
         assertEquals(1, result.getItems().size());
         
+        verify(productRepository, times(1)).reserveStock(Map.of(1L, 2));
+        verify(productCache, times(1)).invalidateStock(Set.of(1L));
         verify(orderRepository, times(1)).save(order);
         
-        ArgumentCaptor<OrderCreatedEvent> eventCaptor = ArgumentCaptor.forClass(OrderCreatedEvent.class);
-        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(eventCaptor.capture());
         
-        OrderCreatedEvent capturedEvent = eventCaptor.getValue();
+        OutboxEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent);
-        assertEquals(savedOrder, capturedEvent.getOrder());
+        assertEquals(OutboxEvent.ORDER_CREATED, capturedEvent.getEventType());
+        assertEquals(savedOrder.getId(), capturedEvent.getAggregateId());
+    }
+
+    @Test
+    void createOrderShouldRejectOrderWhenReservationFails() {
+        // Arrange
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .priceCents(10000)
+                .stock(10)
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        items.add(OrderItem.builder()
+                .product(product)
+                .quantity(5)
+                .priceCents(product.getPriceCents())
+                .build());
+
+        Order order = Order.builder()
+                .customerEmail("test@example.com")
+                .items(items)
+                .build();
+
+        when(productRepository.reserveStock(anyMap())).thenReturn(List.of(1L)); // Sold out concurrently
+
+        // Act & Assert
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(order));
+        assertEquals(List.of(1L), e.getProductIds());
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+    }
+
+    @Test
+    void createOrderShouldReserveWhenCachedStockIsStale() {
+        // Arrange
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .priceCents(10000)
+                .stock(10)
+                .reserved(8)
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        items.add(OrderItem.builder()
+                .product(product)
+                .quantity(3) // Only 2 available when the product was resolved
+                .priceCents(product.getPriceCents())
+                .build());
+
+        Order order = Order.builder()
+                .customerEmail("test@example.com")
+                .items(items)
+                .build();
+
+        when(productCache.getFreshAvailableStock(1L)).thenReturn(OptionalInt.empty()); // Past the stock TTL
+        when(productRepository.reserveStock(anyMap())).thenReturn(List.of()); // Restocked since it was cached
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        // Act
+        Order result = orderService.createOrder(order);
+
+        // Assert
+        assertNotNull(result);
+        verify(productRepository, times(1)).reserveStock(Map.of(1L, 3));
+        verify(orderRepository, times(1)).save(order);
+    }
+
+    @Test
+    void createOrderShouldRejectOrderFreshCachedStockCannotCoverWithoutReserving() {
+        // Arrange
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .priceCents(10000)
+                .stock(10)
+                .reserved(8)
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        items.add(OrderItem.builder()
+                .product(product)
+                .quantity(3)
+                .priceCents(product.getPriceCents())
+                .build());
+
+        Order order = Order.builder()
+                .customerEmail("test@example.com")
+                .items(items)
+                .build();
+
+        when(productCache.getFreshAvailableStock(1L)).thenReturn(OptionalInt.of(2));
+
+        // Act & Assert
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(order));
+        assertEquals(List.of(1L), e.getProductIds());
+
+        verifyNoInteractions(productRepository);
+        verify(orderRepository, never()).save(any(Order.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.hackaton1.resu.service;
+
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.mapper.OrderMapper;
+import com.hackaton1.resu.model.Order;
+import com.hackaton1.resu.model.OutboxEvent;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.OrderRepository;
+import com.hackaton1.resu.repository.OutboxEventRepository;
+import com.hackaton1.resu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void relayShouldDeliverEventsOnceAndMarkThemProcessed() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Relay Product").priceCents(1000).stock(1000).build());
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Order order = orderMapper.toEntity(CreateOrderRequest.builder()
+                    .customerEmail("relay@example.com")
+                    .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 2)))
+                    .build());
+            orderIds.add(orderService.createOrder(order).getId());
+        }
+        assertEquals(120, productRepository.findById(product.getId()).orElseThrow().getReserved());
+
+        // Act
+        long start = System.nanoTime();
+        outboxRelay.relayPendingEvents();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[DEBUG_LOG] Relayed " + orderIds.size() + " events in " + elapsedMillis + " ms");
+
+        // Assert
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(880, after.getStock());
+        assertEquals(0, after.getReserved());
+        for (Long orderId : orderIds) {
+            assertTrue(orderRepository.findById(orderId).orElseThrow().isInventoryApplied());
+        }
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> orderIds.contains(event.getAggregateId()))
+                .toList();
+        assertEquals(orderIds.size(), events.size());
+        events.forEach(event -> assertNotNull(event.getProcessedAt()));
+
+        // Redeliver every event, as after a crash before the outbox was updated
+        events.forEach(event -> event.setProcessedAt(null));
+        outboxEventRepository.saveAll(events);
+        outboxRelay.relayPendingEvents();
+
+        assertEquals(880, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void exhaustedEventShouldBeDeadLetteredAndKeepItsReservation() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Dead Letter Product").priceCents(500).stock(10).build());
+        Order order = orderService.createOrder(orderMapper.toEntity(CreateOrderRequest.builder()
+                .customerEmail("dead-letter@example.com")
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 3)))
+                .build()));
+        OutboxEvent event = outboxEventRepository.findAll().stream()
+                .filter(candidate -> candidate.getAggregateId().equals(order.getId()))
+                .findFirst().orElseThrow();
+        long deadLetteredBefore = outboxRelay.getDeadLetteredCount();
+
+        // Act
+        outboxRelay.deadLetter(List.of(event));
+        outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertEquals(1, outboxRelay.getDeadLetteredCount() - deadLetteredBefore);
+        OutboxEvent after = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertNotNull(after.getDeadLetteredAt());
+        assertNull(after.getProcessedAt()); // No longer relayed
+        Product held = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(10, held.getStock());
+        assertEquals(3, held.getReserved()); // The accepted order keeps its units
+        assertFalse(orderRepository.findById(order.getId()).orElseThrow().isInventoryApplied());
+    }
+}
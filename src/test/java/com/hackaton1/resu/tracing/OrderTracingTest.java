@@ -0,0 +1,91 @@
+package com.hackaton1.resu.tracing;
+
+import com.hackaton1.resu.config.AsyncConfig;
+import com.hackaton1.resu.controller.OrderController;
+import com.hackaton1.resu.dto.CreateOrderRequest;
+import com.hackaton1.resu.dto.OrderDTO;
+import com.hackaton1.resu.model.Product;
+import com.hackaton1.resu.repository.ProductRepository;
+import com.hackaton1.resu.service.OutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderTracingTest {
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private SpanStore spanStore;
+
+    @Autowired
+    @Qualifier(AsyncConfig.EMAIL_EXECUTOR)
+    private TaskExecutor emailExecutor;
+
+    @Test
+    void orderShouldBeTracedFromRequestThroughEveryListener() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Traced Product").priceCents(700).stock(10).build());
+        Span request = tracer.startSpan("http POST /orders");
+
+        // Act
+        OrderDTO order;
+        try (Tracer.Scope scope = tracer.activate(request)) {
+            order = orderController.createOrder(CreateOrderRequest.builder()
+                    .customerEmail("traced@example.com")
+                    .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 1)))
+                    .build()).getBody();
+        }
+        request.end();
+        outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertNotNull(order);
+        List<SpanRecord> spans = spanStore.findOrder(order.getId());
+        spans.forEach(span -> System.out.println("[DEBUG_LOG] " + span.name() + " on " + span.thread() + ": " + span.durationMicros() + " us"));
+        List<String> names = spans.stream().map(SpanRecord::name).toList();
+        assertTrue(names.containsAll(List.of("http POST /orders", "order.map", "order.save", "outbox.dispatch",
+                "listener.InventoryUpdateListener", "listener.CustomerSummaryListener",
+                "listener.EmailNotificationListener", "listener.AuditLogListener")), names.toString());
+        spans.forEach(span -> assertEquals(request.getTraceId(), span.traceId()));
+        SpanRecord dispatch = spans.stream().filter(span -> span.name().equals("outbox.dispatch")).findFirst().orElseThrow();
+        spans.stream()
+                .filter(span -> span.name().startsWith("listener."))
+                .forEach(span -> assertEquals(dispatch.spanId(), span.parentId()));
+    }
+
+    @Test
+    void listenerExecutorsShouldRunTasksInTheSubmittingSpan() {
+        // Arrange
+        Span span = tracer.startSpan("submit");
+        CompletableFuture<Span> seen = new CompletableFuture<>();
+
+        // Act
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            emailExecutor.execute(() -> seen.complete(tracer.currentSpan()));
+        }
+
+        // Assert
+        assertEquals(span, seen.join());
+    }
+}
@@ -0,0 +1,112 @@
+package com.hackaton1.resu.tracing;
+
+import com.hackaton1.resu.config.TracingProperties;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TracerTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    private final SpanStore spanStore = new SpanStore(new TracingProperties());
+    private final Tracer tracer = new Tracer(spanStore);
+
+    @Test
+    void spansShouldContinueTheTraceOfTheirParent() {
+        // Arrange
+        Span remote = tracer.startSpan("remote", "00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        Span child;
+
+        // Act
+        try (Tracer.Scope scope = tracer.activate(remote)) {
+            assertEquals(TRACE_ID, MDC.get(Tracer.TRACE_ID));
+            child = tracer.startSpan("child");
+            child.end();
+        }
+        remote.end();
+
+        // Assert
+        assertNull(tracer.currentSpan());
+        assertNull(MDC.get(Tracer.TRACE_ID));
+        List<SpanRecord> trace = spanStore.findTrace(TRACE_ID);
+        assertEquals(2, trace.size());
+        assertEquals(PARENT_ID, trace.get(0).parentId());
+        assertEquals(remote.getSpanId(), trace.get(1).parentId());
+        assertEquals(remote.getTraceParent(), "00-" + TRACE_ID + "-" + remote.getSpanId() + "-01");
+    }
+
+    @Test
+    void malformedTraceParentShouldStartNewTrace() {
+        Span span = tracer.startSpan("root", "00-" + "0".repeat(32) + "-" + PARENT_ID + "-01");
+        Span other = tracer.startSpan("root", "garbage");
+
+        assertNotEquals("0".repeat(32), span.getTraceId());
+        assertEquals(32, other.getTraceId().length());
+        assertNotEquals(span.getTraceId(), other.getTraceId());
+    }
+
+    @Test
+    void decoratedTasksShouldRunInTheSubmittingSpan() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Span span = tracer.startSpan("submit");
+        Span[] seenSpan = new Span[1];
+        String[] seenTraceId = new String[1];
+
+        try {
+            // Act
+            Future<?> task;
+            try (Tracer.Scope scope = tracer.activate(span)) {
+                task = executor.submit(tracer.decorate(() -> {
+                    seenSpan[0] = tracer.currentSpan();
+                    seenTraceId[0] = MDC.get(Tracer.TRACE_ID);
+                }));
+            }
+            task.get();
+
+            // Assert
+            assertSame(span, seenSpan[0]);
+            assertEquals(span.getTraceId(), seenTraceId[0]);
+            assertNull(executor.submit(tracer::currentSpan).get()); // The span does not leak into later tasks
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void filterShouldRunTheRequestInASpan() throws Exception {
+        // Arrange
+        TracingFilter filter = new TracingFilter(tracer);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(TracingFilter.TRACE_PARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Span[] current = new Span[1];
+
+        // Act
+        filter.doFilter(request, response, (req, res) -> {
+            current[0] = tracer.currentSpan();
+            response.setStatus(201);
+        });
+
+        // Assert
+        assertEquals(TRACE_ID, response.getHeader(TracingFilter.TRACE_ID_HEADER));
+        SpanRecord span = spanStore.findTrace(TRACE_ID).get(0);
+        assertEquals(current[0].getSpanId(), span.spanId());
+        assertEquals("http POST /orders", span.name());
+        assertEquals(PARENT_ID, span.parentId());
+        assertEquals("201", span.tags().get("http.status"));
+    }
+}